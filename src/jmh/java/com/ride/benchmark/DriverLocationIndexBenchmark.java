@@ -0,0 +1,109 @@
+package com.ride.benchmark;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.service.DriverLocationIndex;
+import com.ride.service.DriverLocationIndex.DriverMatch;
+import com.ride.service.DriverLocationIndex.DriverPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100k drivers spread over greater Sao Paulo. At one ping every 4 seconds that fleet
+ * needs 25k updates/s; the {@code mixed} group measures update throughput while
+ * nearest-10 matching queries run on another thread against the same index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverLocationIndexBenchmark {
+
+    private static final int DRIVERS = 100_000;
+    private static final double MIN_LAT = -23.75;
+    private static final double MAX_LAT = -23.35;
+    private static final double MIN_LON = -46.85;
+    private static final double MAX_LON = -46.35;
+    private static final double STEP_DEGREES = 0.0005;
+    private static final Set<DriverAvailability> AVAILABLE = EnumSet.of(DriverAvailability.AVAILABLE);
+
+    private DriverLocationIndex index;
+
+    private UUID[] driverIds;
+
+    @Setup
+    public void setUp() {
+        index = new DriverLocationIndex(0.01, Duration.ofHours(1), new SimpleMeterRegistry());
+        driverIds = new UUID[DRIVERS];
+
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < DRIVERS; i++) {
+            driverIds[i] = UUID.randomUUID();
+            DriverAvailability availability = random.nextInt(4) == 0 ? DriverAvailability.ON_TRIP : DriverAvailability.AVAILABLE;
+            index.update(driverIds[i], random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON), availability, now);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public boolean update(ThreadState state) {
+        return move(state.random);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<DriverMatch> nearest(ThreadState state) {
+        return query(state.random);
+    }
+
+    @Benchmark
+    public boolean updateOnly(ThreadState state) {
+        return move(state.random);
+    }
+
+    @Benchmark
+    public List<DriverMatch> nearestOnly(ThreadState state) {
+        return query(state.random);
+    }
+
+    private boolean move(SplittableRandom random) {
+        UUID driverId = driverIds[random.nextInt(DRIVERS)];
+        DriverPosition current = index.get(driverId);
+        double latitude = Math.clamp(current.latitude() + random.nextDouble(-STEP_DEGREES, STEP_DEGREES), MIN_LAT, MAX_LAT);
+        double longitude = Math.clamp(current.longitude() + random.nextDouble(-STEP_DEGREES, STEP_DEGREES), MIN_LON, MAX_LON);
+        return index.update(driverId, latitude, longitude, current.availability(), System.currentTimeMillis());
+    }
+
+    private List<DriverMatch> query(SplittableRandom random) {
+        return index.nearest(random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON), 10, 5_000, AVAILABLE);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ride.benchmark;
+
+import com.ride.config.DriverLocationFrame;
+import com.ride.config.JWTAuthenticationFilter;
+import com.ride.config.JWTTokenProvider;
+import com.ride.domain.User;
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.domain.enums.UserRole;
+import com.ride.dto.location.DriverLocationUpdateDTO;
+import com.ride.service.DriverLocationCoalescer;
+import com.ride.service.DriverLocationIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost of one driver location ping. {@code httpJson} runs the JWT filter
+ * and JSON binding a POST /drivers/location pays before the index update;
+ * {@code webSocketFrame} decodes a binary frame on an already authenticated
+ * session and coalesces it. Run with {@code -prof gc} to compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverLocationIngestBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private final UUID driverId = UUID.randomUUID();
+
+    private JWTAuthenticationFilter filter;
+
+    private ObjectMapper objectMapper;
+
+    private DriverLocationIndex index;
+
+    private DriverLocationCoalescer coalescer;
+
+    private MockHttpServletRequest request;
+
+    private byte[] json;
+
+    private ByteBuffer frame;
+
+    @Setup
+    public void setUp() {
+        JWTTokenProvider tokenProvider = new JWTTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtIssuer", "ride-api");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 10_000);
+        tokenProvider.init();
+        filter = new JWTAuthenticationFilter(tokenProvider, new SimpleMeterRegistry());
+
+        String token = tokenProvider.generateJwtToken(User.builder()
+                .cpf("111.111.111-11")
+                .roles(Set.of(UserRole.DRIVER))
+                .build());
+        request = new MockHttpServletRequest("POST", "/drivers/location");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        objectMapper = JsonMapper.builder().build();
+        json = "{\"latitude\":-23.5614,\"longitude\":-46.6559,\"availability\":\"AVAILABLE\"}".getBytes(StandardCharsets.UTF_8);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        index = new DriverLocationIndex(0.01, Duration.ofHours(1), meterRegistry);
+        coalescer = new DriverLocationCoalescer(index, meterRegistry, Duration.ofHours(1));
+        frame = DriverLocationFrame.encode(-23.5614, -46.6559, DriverAvailability.AVAILABLE, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean httpJson() throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            DriverLocationUpdateDTO update = objectMapper.readValue(json, DriverLocationUpdateDTO.class);
+            return index.update(driverId, update.latitude(), update.longitude(), update.availability(), System.currentTimeMillis());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void webSocketFrame() {
+        if (DriverLocationFrame.isValid(frame, 0)) {
+            coalescer.offer(driverId,
+                    DriverLocationFrame.latitude(frame, 0),
+                    DriverLocationFrame.longitude(frame, 0),
+                    DriverLocationFrame.availability(frame, 0),
+                    DriverLocationFrame.recordedAt(frame, 0));
+        }
+    }
+}
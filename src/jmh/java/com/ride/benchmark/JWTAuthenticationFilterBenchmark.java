@@ -0,0 +1,128 @@
+package com.ride.benchmark;
+
+import com.ride.config.JWTAuthenticationFilter;
+import com.ride.config.JWTTokenProvider;
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter. {@code legacyTripleParse} replays the old
+ * filter body (three full parses per request); {@code filter} runs the current
+ * single-verification filter with the claims cache disabled ({@code cacheMaxSize=0})
+ * and enabled, recording its timers into a no-op or a real registry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"0", "10000"})
+    private int cacheMaxSize;
+
+    @Param({"false", "true"})
+    private boolean recordMetrics;
+
+    private JWTAuthenticationFilter filter;
+
+    private SecretKey secretKey;
+
+    private String token;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = recordMetrics ? new SimpleMeterRegistry() : Metrics.globalRegistry;
+        JWTTokenProvider tokenProvider = new JWTTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtIssuer", "ride-api");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(tokenProvider, "meterRegistry", meterRegistry);
+        tokenProvider.init();
+
+        filter = new JWTAuthenticationFilter(tokenProvider, meterRegistry);
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = tokenProvider.generateJwtToken(User.builder()
+                .cpf("111.111.111-11")
+                .roles(Set.of(UserRole.PASSENGER, UserRole.DRIVER))
+                .build());
+
+        request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Authentication legacyTripleParse() {
+        try {
+            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+            String cpf = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getSubject();
+            Claims claims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+            List<String> roles = claims.get("roles", List.class);
+
+            UserDetails userDetails = org.springframework.security.core.userdetails.User
+                    .withUsername(cpf)
+                    .password("")
+                    .authorities(roles.stream().map(role -> "ROLE_" + role).toArray(String[]::new))
+                    .build();
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            return authToken;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
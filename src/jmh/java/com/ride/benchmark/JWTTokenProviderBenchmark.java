@@ -0,0 +1,75 @@
+package com.ride.benchmark;
+
+import com.ride.config.JWTTokenProvider;
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing a token at login and of validating one per request, with the
+ * claims cache disabled ({@code cacheMaxSize=0}, a full signature check every call)
+ * and enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"0", "10000"})
+    private int cacheMaxSize;
+
+    private JWTTokenProvider tokenProvider;
+
+    private User user;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JWTTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtIssuer", "ride-api");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(tokenProvider, "meterRegistry", new SimpleMeterRegistry());
+        tokenProvider.init();
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .cpf("111.111.111-11")
+                .roles(Set.of(UserRole.PASSENGER, UserRole.DRIVER))
+                .build();
+        token = tokenProvider.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return tokenProvider.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+}
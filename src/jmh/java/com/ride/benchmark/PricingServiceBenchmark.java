@@ -0,0 +1,73 @@
+package com.ride.benchmark;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.dto.ride.FareQuoteDTO;
+import com.ride.service.DriverLocationIndex;
+import com.ride.service.PricingService;
+import com.ride.service.ZoneMarketState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a fare quote against a populated market: 20k drivers and 5k open
+ * requests spread over greater Sao Paulo. Target is well under a millisecond.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingServiceBenchmark {
+
+    private static final double MIN_LAT = -23.75;
+    private static final double MAX_LAT = -23.35;
+    private static final double MIN_LON = -46.85;
+    private static final double MAX_LON = -46.35;
+
+    private PricingService pricingService;
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DriverLocationIndex index = new DriverLocationIndex(0.01, Duration.ofHours(1), meterRegistry);
+        ZoneMarketState marketState = new ZoneMarketState(index, 0.05, Duration.ofMinutes(5), 30);
+        pricingService = new PricingService(marketState, meterRegistry,
+                new BigDecimal("5.00"), new BigDecimal("1.80"), new BigDecimal("0.35"), new BigDecimal("9.00"), "BRL",
+                1.3, 25, 0.2, 1.0, 0.5, 3.0, Duration.ofMinutes(2));
+
+        random = new SplittableRandom(1);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 20_000; i++) {
+            index.update(UUID.randomUUID(), random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON),
+                    DriverAvailability.AVAILABLE, now);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            marketState.requestOpened(random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON));
+        }
+    }
+
+    @Benchmark
+    public FareQuoteDTO quote() {
+        return pricingService.quote(
+                random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON),
+                random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ride.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from process launch to the first successful request ({@code /actuator/health},
+ * which touches the database) for the plain fat jar and for the
+ * {@code fast-startup} build (extracted jar, Spring AOT, JDK AOT cache). Needs
+ * {@code mvn -Pfast-startup,benchmark -DskipTests verify -Djmh.includes=Startup}; each
+ * invocation boots a fresh JVM against an embedded Postgres already migrated by the
+ * warm-up.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jar", "fast-startup"})
+    private String mode;
+
+    private EmbeddedPostgres postgres;
+
+    private HttpClient client;
+
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws IOException {
+        client.close();
+        postgres.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " during startup");
+            }
+            try {
+                HttpResponse<Void> response = client.send(health, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    private List<String> command(int port) {
+        Path target = Path.of(System.getProperty("startup.target-dir", "target"));
+        String jarName = System.getProperty("startup.jar", findJar(target));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("fast-startup")) {
+            Path dir = target.resolve("fast-startup");
+            command.add("-XX:AOTCache=" + dir.resolve("ride.aot"));
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-jar");
+            command.add(dir.resolve(jarName).toString());
+        } else {
+            command.add("-jar");
+            command.add(target.resolve(jarName).toString());
+        }
+        command.add("--spring.profiles.active=prod");
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+        command.add("--spring.datasource.username=postgres");
+        command.add("--spring.datasource.password=postgres");
+        command.add("--jwt.secret=startup-benchmark-secret-startup-benchmark-secret-0123456789");
+        command.add("--jwt.expiration=3600000");
+        return command;
+    }
+
+    private static String findJar(Path target) {
+        try (var jars = Files.list(target)) {
+            return jars.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".jar") && !name.endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + target + ", run package first"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list " + target, e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ride.benchmark;
+
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.user.UserGetResponseDTO;
+import com.ride.dto.user.UserResponseDTO;
+import com.ride.dto.user.UserSnapshotDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping behind registration ({@link UserResponseDTO#from}) and
+ * {@code GET /users} (snapshot, then {@link UserGetResponseDTO#from}), alone and
+ * including JSON serialization of the response body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    private UserSnapshotDTO snapshot;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Maria da Silva")
+                .email("maria.silva@example.com")
+                .cpf("111.111.111-11")
+                .phoneNumber("+55 11 91234-5678")
+                .roles(new HashSet<>(Set.of(UserRole.PASSENGER, UserRole.DRIVER)))
+                .status(UserStatus.ACTIVE)
+                .balance(BigDecimal.ZERO)
+                .createdAt(LocalDateTime.now())
+                .build();
+        snapshot = UserSnapshotDTO.from(user);
+    }
+
+    @Benchmark
+    public UserResponseDTO registrationResponse() {
+        return UserResponseDTO.from(user);
+    }
+
+    @Benchmark
+    public UserGetResponseDTO findUserResponse() {
+        return UserGetResponseDTO.from(snapshot);
+    }
+
+    @Benchmark
+    public UserGetResponseDTO findUserFromEntity() {
+        return UserGetResponseDTO.from(UserSnapshotDTO.from(user));
+    }
+
+    @Benchmark
+    public byte[] registrationResponseJson() {
+        return objectMapper.writeValueAsBytes(UserResponseDTO.from(user));
+    }
+
+    @Benchmark
+    public byte[] findUserResponseJson() {
+        return objectMapper.writeValueAsBytes(UserGetResponseDTO.from(snapshot));
+    }
+}
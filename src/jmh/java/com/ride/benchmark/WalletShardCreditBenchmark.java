@@ -0,0 +1,91 @@
+package com.ride.benchmark;
+
+import com.ride.RideApplication;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.ledger.LedgerPostingDTO;
+import com.ride.repository.WalletRepository;
+import com.ride.service.LedgerService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent commission credits into one wallet, with the wallet's credits on its
+ * base row ({@code shardCount=1}) or spread over shard rows. Runs the application
+ * context against an embedded Postgres; compaction is off, so shards only grow.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class WalletShardCreditBenchmark {
+
+    private static final BigDecimal COMMISSION = new BigDecimal("1.25");
+
+    @Param({"1", "8"})
+    private int shardCount;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private LedgerService ledgerService;
+
+    private Long walletId;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(RideApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "jwt.secret=benchmark-secret-benchmark-secret-benchmark-secret-0123456789",
+                        "jwt.expiration=3600000",
+                        "spring.jpa.show-sql=false",
+                        "scheduling.enabled=false")
+                .run();
+        ledgerService = context.getBean(LedgerService.class);
+        walletId = context.getBean(WalletRepository.class).save(Wallet.builder()
+                .type(WalletType.COMPANY)
+                .balance(BigDecimal.ZERO)
+                .shardCount(shardCount)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public void credit() {
+        ledgerService.post(LedgerPostingDTO.deposit(walletId, COMMISSION, "Ride commission"));
+    }
+}
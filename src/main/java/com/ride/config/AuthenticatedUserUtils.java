@@ -1,18 +1,26 @@
 package com.ride.config;
 
 import com.ride.domain.User;
+import com.ride.dto.user.UserSnapshotDTO;
 import com.ride.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 @RequiredArgsConstructor
 public class AuthenticatedUserUtils {
 
+    private static final String SNAPSHOT_ATTRIBUTE = AuthenticatedUserUtils.class.getName() + ".SNAPSHOT";
+
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
     public String getCpf() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -36,4 +44,50 @@ public class AuthenticatedUserUtils {
         return userRepository.findByCpf(getCpf())
                 .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database."));
     }
+
+    public UserSnapshotDTO getUserSnapshot() {
+        String cpf = getCpf();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null
+                && attributes.getAttribute(SNAPSHOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UserSnapshotDTO memo
+                && memo.cpf().equals(cpf)) {
+            return memo;
+        }
+
+        UserSnapshotDTO snapshot = getUserSnapshot(cpf);
+        if (attributes != null) {
+            attributes.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot, RequestAttributes.SCOPE_REQUEST);
+        }
+        return snapshot;
+    }
+
+    public UserSnapshotDTO getUserSnapshot(String cpf) {
+        return userSnapshotCache.get(cpf, this::loadSnapshot);
+    }
+
+    public void evict(User user) {
+        String cpf = user.getCpf();
+        userSnapshotCache.invalidate(cpf);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(SNAPSHOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userSnapshotCache.invalidate(cpf);
+                }
+            });
+        }
+    }
+
+    private UserSnapshotDTO loadSnapshot(String cpf) {
+        return userRepository.findByCpf(cpf)
+                .map(UserSnapshotDTO::from)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database."));
+    }
 }
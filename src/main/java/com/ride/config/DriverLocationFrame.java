@@ -0,0 +1,65 @@
+package com.ride.config;
+
+import com.ride.domain.enums.DriverAvailability;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary location frame sent by driver apps over {@code /ws/drivers/location}.
+ * Fixed 20 bytes, big-endian:
+ * <pre>
+ *  0      version (1)
+ *  1      availability ordinal (0 AVAILABLE, 1 ON_TRIP, 2 OFFLINE)
+ *  2..3   reserved, zero
+ *  4..7   latitude  * 1e7 (int)
+ *  8..11  longitude * 1e7 (int)
+ *  12..19 recorded at, epoch millis (long)
+ * </pre>
+ * A message may carry several frames back to back.
+ */
+public final class DriverLocationFrame {
+
+    public static final int SIZE = 20;
+    public static final byte VERSION = 1;
+
+    private static final double E7 = 1e7;
+    private static final DriverAvailability[] AVAILABILITIES = DriverAvailability.values();
+
+    private DriverLocationFrame() {
+    }
+
+    public static boolean isValid(ByteBuffer buffer, int offset) {
+        if (buffer.get(offset) != VERSION) {
+            return false;
+        }
+        int availability = buffer.get(offset + 1);
+        return availability >= 0 && availability < AVAILABILITIES.length;
+    }
+
+    public static DriverAvailability availability(ByteBuffer buffer, int offset) {
+        return AVAILABILITIES[buffer.get(offset + 1)];
+    }
+
+    public static double latitude(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 4) / E7;
+    }
+
+    public static double longitude(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 8) / E7;
+    }
+
+    public static long recordedAt(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 12);
+    }
+
+    public static ByteBuffer encode(double latitude, double longitude, DriverAvailability availability, long recordedAt) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.put(VERSION)
+                .put((byte) availability.ordinal())
+                .putShort((short) 0)
+                .putInt((int) Math.round(latitude * E7))
+                .putInt((int) Math.round(longitude * E7))
+                .putLong(recordedAt);
+        return buffer.flip();
+    }
+}
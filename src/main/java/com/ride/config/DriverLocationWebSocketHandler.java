@@ -0,0 +1,140 @@
+package com.ride.config;
+
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.event.UserStatusChangedEvent;
+import com.ride.service.DriverLocationCoalescer;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receives {@link DriverLocationFrame}s from an authenticated driver and hands them
+ * to the {@link DriverLocationCoalescer}. Frames are decoded in place, so a ping
+ * allocates nothing beyond what the container already did for the message. When a
+ * driver stops being active, their open streams are closed and their pending and
+ * indexed positions dropped. Message size and idle limits are set on each session
+ * rather than on the container, so they apply whichever container accepted it.
+ */
+@Slf4j
+@Component
+public class DriverLocationWebSocketHandler extends BinaryWebSocketHandler implements SubProtocolCapable {
+
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Token expired");
+    private static final CloseStatus BAD_FRAME = CloseStatus.BAD_DATA.withReason("Invalid location frame");
+    private static final CloseStatus NOT_ACTIVE = CloseStatus.POLICY_VIOLATION.withReason("Driver is not active");
+
+    private final DriverLocationCoalescer driverLocationCoalescer;
+    private final int maxMessageBytes;
+    private final long idleTimeoutMillis;
+    private final Map<UUID, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    public DriverLocationWebSocketHandler(DriverLocationCoalescer driverLocationCoalescer,
+                                          @Value("${driver-location.stream.max-message-bytes:1024}") int maxMessageBytes,
+                                          @Value("${driver-location.stream.idle-timeout:PT2M}") Duration idleTimeout) {
+        this.driverLocationCoalescer = driverLocationCoalescer;
+        this.maxMessageBytes = maxMessageBytes;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(JWTHandshakeInterceptor.TOKEN_PROTOCOL);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.setBinaryMessageSizeLimit(maxMessageBytes);
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        if (session instanceof NativeWebSocketSession nativeSession
+                && nativeSession.getNativeSession(Session.class) instanceof Session standardSession) {
+            standardSession.setMaxIdleTimeout(idleTimeoutMillis);
+        }
+        sessions.computeIfAbsent(driverId(session), id -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        if (session.getAttributes().get(JWTHandshakeInterceptor.EXPIRES_AT_ATTRIBUTE) instanceof Long expiresAt
+                && expiresAt <= System.currentTimeMillis()) {
+            session.close(TOKEN_EXPIRED);
+            return;
+        }
+
+        ByteBuffer payload = message.getPayload();
+        int start = payload.position();
+        int length = payload.remaining();
+        if (length == 0 || length % DriverLocationFrame.SIZE != 0) {
+            session.close(BAD_FRAME);
+            return;
+        }
+
+        UUID driverId = driverId(session);
+        for (int offset = start; offset < start + length; offset += DriverLocationFrame.SIZE) {
+            if (!DriverLocationFrame.isValid(payload, offset)) {
+                session.close(BAD_FRAME);
+                return;
+            }
+            if (!session.isOpen()) {
+                return;
+            }
+            double latitude = DriverLocationFrame.latitude(payload, offset);
+            double longitude = DriverLocationFrame.longitude(payload, offset);
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                session.close(BAD_FRAME);
+                return;
+            }
+            driverLocationCoalescer.offer(driverId, latitude, longitude,
+                    DriverLocationFrame.availability(payload, offset), DriverLocationFrame.recordedAt(payload, offset));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        UUID driverId = driverId(session);
+        sessions.computeIfPresent(driverId, (id, open) -> {
+            open.remove(session);
+            return open.isEmpty() ? null : open;
+        });
+        log.debug("Driver location stream closed for {}: {}", driverId, status);
+    }
+
+    // Streams are closed before the slot is dropped, so no new ping can refill it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        if (event.status() == UserStatus.ACTIVE) {
+            return;
+        }
+        Set<WebSocketSession> open = sessions.remove(event.userId());
+        if (open != null) {
+            for (WebSocketSession session : open) {
+                try {
+                    session.close(NOT_ACTIVE);
+                } catch (IOException e) {
+                    log.debug("Could not close location stream of {}: {}", event.userId(), e.getMessage());
+                }
+            }
+        }
+        driverLocationCoalescer.remove(event.userId());
+    }
+
+    private static UUID driverId(WebSocketSession session) {
+        return (UUID) session.getAttributes().get(JWTHandshakeInterceptor.DRIVER_ID_ATTRIBUTE);
+    }
+}
@@ -1,10 +1,11 @@
 package com.ride.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,50 +16,74 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates Bearer tokens. Time spent here is recorded per outcome on timers built
+ * once up front, so the hot path only pays two {@code nanoTime} calls and a record.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private final JWTTokenProvider jwtUtil;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer anonymousTimer;
+
+    public JWTAuthenticationFilter(JWTTokenProvider jwtUtil, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        long start = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        Timer timer = anonymousTimer;
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = authHeader.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
-                String cpf = jwtUtil.getCpfFromToken(token);
-                List<String> roles = jwtUtil.getRolesFromToken(token);
+            JWTPrincipal principal = jwtUtil.verify(token)
+                    .filter(candidate -> candidate.cpf() != null)
+                    .orElse(null);
+            if (principal != null) {
+                authenticate(request, principal);
+                timer = authenticatedTimer;
+            } else {
+                timer = rejectedTimer;
+            }
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-                if (cpf != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    String[] authorities = roles.stream()
-                            .map(role -> "ROLE_" + role)
-                            .toArray(String[]::new);
+        filterChain.doFilter(request, response);
+    }
 
-                    UserDetails userDetails = User
-                            .withUsername(cpf)
-                            .password("")
-                            .authorities(authorities)
-                            .build();
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+    private void authenticate(HttpServletRequest request, JWTPrincipal principal) {
+        UserDetails userDetails = User
+                .withUsername(principal.cpf())
+                .password("")
+                .authorities(principal.authorities())
+                .build();
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
 
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            }
-        }
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-        filterChain.doFilter(request, response);
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
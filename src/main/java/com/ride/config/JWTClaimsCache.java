@@ -0,0 +1,66 @@
+package com.ride.config;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified tokens keyed by the SHA-256 digest of the compact token. Entries are
+ * dropped once their {@code exp} claim passes, and the map never grows past
+ * {@code maxSize}: on overflow expired entries are purged first, then the ones
+ * closest to expiring.
+ */
+class JWTClaimsCache {
+
+    private final Map<String, JWTPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    JWTClaimsCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    JWTPrincipal get(String digest, Instant now) {
+        JWTPrincipal principal = entries.get(digest);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.isExpiredAt(now)) {
+            entries.remove(digest, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(String digest, JWTPrincipal principal, Instant now) {
+        if (maxSize <= 0 || principal.expiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(digest, principal);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private synchronized void evict(Instant now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(principal -> principal.isExpiredAt(now));
+
+        // Down to 90%, and at least one below maxSize to make room for the entry being put
+        int excess = entries.size() - (maxSize - Math.max(1, maxSize / 10));
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparing(JWTPrincipal::expiresAt)))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+}
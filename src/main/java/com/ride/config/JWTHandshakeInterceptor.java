@@ -0,0 +1,80 @@
+package com.ride.config;
+
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.user.UserSnapshotDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticates a WebSocket handshake once, from the {@code Authorization: Bearer}
+ * header or, for browsers that cannot set headers, the subprotocol pair
+ * {@code Sec-WebSocket-Protocol: access_token, <jwt>}. Only {@code access_token} is
+ * echoed back, and tokens are never taken from the URL, where they would end up in
+ * access logs. Only active drivers may open a location stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JWTHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String DRIVER_ID_ATTRIBUTE = "driverId";
+    public static final String EXPIRES_AT_ATTRIBUTE = "tokenExpiresAt";
+    public static final String TOKEN_PROTOCOL = "access_token";
+
+    private final JWTTokenProvider jwtTokenProvider;
+    private final AuthenticatedUserUtils authenticatedUserUtils;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Optional<JWTPrincipal> principal = token(request).flatMap(jwtTokenProvider::verify);
+        if (principal.isEmpty() || principal.get().cpf() == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        if (!principal.get().roles().contains(UserRole.DRIVER.name())) {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+
+        UserSnapshotDTO driver = authenticatedUserUtils.getUserSnapshot(principal.get().cpf());
+        if (driver.status() != UserStatus.ACTIVE) {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+
+        attributes.put(DRIVER_ID_ATTRIBUTE, driver.id());
+        if (principal.get().expiresAt() != null) {
+            attributes.put(EXPIRES_AT_ATTRIBUTE, principal.get().expiresAt().toEpochMilli());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private static Optional<String> token(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            return Optional.of(header.substring(7));
+        }
+        List<String> protocols = request.getHeaders().getValuesAsList(WebSocketHttpHeaders.SEC_WEBSOCKET_PROTOCOL);
+        int index = protocols.indexOf(TOKEN_PROTOCOL);
+        return index >= 0 && index + 1 < protocols.size() ? Optional.of(protocols.get(index + 1)) : Optional.empty();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ride.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JWTPrincipal(String cpf, List<String> roles, List<GrantedAuthority> authorities, Instant expiresAt) {
+
+    public JWTPrincipal {
+        roles = List.copyOf(roles);
+        authorities = List.copyOf(authorities);
+    }
+
+    public static JWTPrincipal of(String cpf, List<String> roles, Instant expiresAt) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        return new JWTPrincipal(cpf, roles, authorities, expiresAt);
+    }
+
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -5,20 +5,32 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,14 +46,46 @@ public class JWTTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
     private SecretKey secretKey;
 
+    private JwtParser jwtParser;
+
+    private JWTClaimsCache claimsCache;
+
+    // Falls back to the global registry, which records nothing until one is added
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Timer generateTimer;
+
+    private Timer parseTimer;
+
+    private Counter cacheHitCounter;
+
+    private Counter cacheMissCounter;
+
     @PostConstruct
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.claimsCache = new JWTClaimsCache(cacheMaxSize);
+
+        this.generateTimer = Timer.builder("auth.jwt.generate").register(meterRegistry);
+        this.parseTimer = Timer.builder("auth.jwt.parse").register(meterRegistry);
+        this.cacheHitCounter = Counter.builder("auth.jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMissCounter = Counter.builder("auth.jwt.cache").tag("result", "miss").register(meterRegistry);
     }
 
     public String generateJwtToken(User user) {
+        return generateTimer.record(() -> buildToken(user));
+    }
+
+    private String buildToken(User user) {
         Date now = new Date();
         Date expiration = new Date(now.getTime() + jwtExpiration);
 
@@ -59,28 +103,70 @@ public class JWTTokenProvider {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    public Optional<JWTPrincipal> verify(String token) {
+        if (token == null || token.isBlank()) {
+            log.info("JWT token compact of handler are invalid.");
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String digest = digest(token);
+        JWTPrincipal cached = claimsCache.get(digest, now);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return Optional.of(cached);
+        }
+        cacheMissCounter.increment();
+
         try {
             Claims claims = parseToken(token);
 
             if (isTokenExpired(claims)) {
                 log.info("Token is expired.");
-                return false;
+                return Optional.empty();
             }
-            return true;
+
+            JWTPrincipal principal = toPrincipal(claims);
+            claimsCache.put(digest, principal, now);
+            return Optional.of(principal);
         } catch (JwtException | IllegalArgumentException e) {
             logJwtException(e);
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     private Claims parseToken(String token) {
-        Jws<Claims> jws = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token);
+        long start = System.nanoTime();
+        try {
+            Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+
+            return jws.getPayload();
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private JWTPrincipal toPrincipal(Claims claims) {
+        List<?> rolesClaim = claims.get("roles", List.class);
+        List<String> roles = rolesClaim == null ? List.of() : rolesClaim.stream()
+                .map(String::valueOf)
+                .toList();
+        Date expiration = claims.getExpiration();
+
+        return JWTPrincipal.of(claims.getSubject(), roles, expiration == null ? null : expiration.toInstant());
+    }
 
-        return jws.getPayload();
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private boolean isTokenExpired(Claims claims) {
@@ -103,12 +189,4 @@ public class JWTTokenProvider {
         log.trace("JWT validation exception trace: {}", e);
     }
 
-    public String getCpfFromToken(String token) {
-        return parseToken(token).getSubject();
-    }
-
-    public List<String> getRolesFromToken(String token) {
-        return parseToken(token).get("roles", List.class);
-    }
-
 }
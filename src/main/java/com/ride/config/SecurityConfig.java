@@ -1,5 +1,7 @@
 package com.ride.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -8,6 +10,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -15,9 +18,12 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -25,12 +31,28 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public JWTAuthenticationFilter jwtAuthenticationFilter(JWTTokenProvider jwtTokenProvider) {
-        return new JWTAuthenticationFilter(jwtTokenProvider);
+    public JWTAuthenticationFilter jwtAuthenticationFilter(JWTTokenProvider jwtTokenProvider, MeterRegistry meterRegistry) {
+        return new JWTAuthenticationFilter(jwtTokenProvider, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JWTAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public LoginRateLimitFilter loginRateLimitFilter(
+            @Value("${security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+            @Value("${security.login-rate-limit.cpf.capacity:5}") int cpfCapacity,
+            @Value("${security.login-rate-limit.cpf.refill-period:PT1M}") Duration cpfRefillPeriod,
+            @Value("${security.login-rate-limit.max-keys:100000}") int maxKeys,
+            ObjectMapper objectMapper) {
+        return new LoginRateLimitFilter(
+                new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod, maxKeys),
+                new TokenBucketRateLimiter(cpfCapacity, cpfRefillPeriod, maxKeys),
+                objectMapper);
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   LoginRateLimitFilter loginRateLimitFilter,
+                                                   JWTAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
@@ -42,7 +64,12 @@ public class SecurityConfig {
                                 "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**",
                                 "/webjars/swagger-ui/**"
                         ).permitAll()
+                        // WebSocket handshakes authenticate in JWTHandshakeInterceptor (header or subprotocol)
+                        .requestMatchers("/ws/**").permitAll()
+                        // Probes and the Prometheus scrape, only served on management.server.port
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated())
+                .addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -62,8 +89,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        // Hashes are stored with an {id} prefix; legacy unprefixed BCrypt hashes still match
+        // and PasswordHashingService.needsRehash() gets them re-hashed on the next login.
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
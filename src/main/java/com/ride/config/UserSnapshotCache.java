@@ -0,0 +1,127 @@
+package com.ride.config;
+
+import com.ride.dto.user.UserSnapshotDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived, node-local copy of the read fields of users, keyed by CPF.
+ * Concurrent misses for the same CPF share a single load. Every entry carries a
+ * stamp and invalidation replaces it with a tombstone, so a load is only stored
+ * when its key was not invalidated meanwhile; invalidating other keys doesn't
+ * affect it. A full cache evicts single entries, expired ones first.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private static final long NO_ENTRY = -1;
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<UserSnapshotDTO>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong stamps = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public UserSnapshotCache(@Value("${user.snapshot-cache.ttl:PT30S}") Duration ttl,
+                             @Value("${user.snapshot-cache.max-size:50000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public UserSnapshotDTO get(String cpf, Function<String, UserSnapshotDTO> loader) {
+        long startedAt = System.nanoTime();
+        Entry entry = entries.get(cpf);
+        if (entry != null && !entry.tombstone() && startedAt - entry.loadedAt() < ttlNanos) {
+            return entry.snapshot();
+        }
+
+        CompletableFuture<UserSnapshotDTO> flight = new CompletableFuture<>();
+        CompletableFuture<UserSnapshotDTO> existing = inFlight.putIfAbsent(cpf, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            UserSnapshotDTO snapshot = loader.apply(cpf);
+            store(cpf, snapshot, entry == null ? NO_ENTRY : entry.stamp(), startedAt);
+            flight.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cpf, flight);
+        }
+    }
+
+    public void invalidate(String cpf) {
+        entries.put(cpf, new Entry(null, System.nanoTime(), stamps.incrementAndGet()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Stored only if the entry the load started from is still there. A load slower than
+    // the TTL is dropped: a tombstone written during it may already have been evicted.
+    private void store(String cpf, UserSnapshotDTO snapshot, long expectedStamp, long startedAt) {
+        long now = System.nanoTime();
+        if (snapshot == null || now - startedAt >= ttlNanos) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictOne(now);
+        }
+        entries.compute(cpf, (key, current) -> (current == null ? NO_ENTRY : current.stamp()) == expectedStamp
+                ? new Entry(snapshot, now, stamps.incrementAndGet())
+                : current);
+    }
+
+    // Samples a few entries and removes an expired one, else the first live one. Young
+    // tombstones are kept, so the cache may briefly exceed maxSize.
+    private void evictOne(long now) {
+        Map.Entry<String, Entry> victim = null;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        for (int sampled = 0; sampled < EVICTION_SAMPLE && iterator.hasNext(); sampled++) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (now - candidate.getValue().loadedAt() >= ttlNanos) {
+                victim = candidate;
+                break;
+            }
+            if (victim == null && !candidate.getValue().tombstone()) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            entries.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private static UserSnapshotDTO await(CompletableFuture<UserSnapshotDTO> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(UserSnapshotDTO snapshot, long loadedAt, long stamp) {
+
+        boolean tombstone() {
+            return snapshot == null;
+        }
+    }
+}
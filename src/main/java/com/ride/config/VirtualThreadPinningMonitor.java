@@ -0,0 +1,135 @@
+package com.ride.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event in-process. Since JDK 24 a
+ * {@code synchronized} block no longer pins, but native frames, class initializers
+ * and some library paths still do; every pin longer than the threshold is timed,
+ * each distinct stack is logged once when first seen, and the most frequent stacks
+ * are summarised periodically.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_TRACKED_STACKS = 1000;
+
+    private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+    private final Duration threshold;
+    private final int stackDepth;
+    private final int reportTop;
+    private final Timer pinnedTimer;
+    private final Counter untrackedCounter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold,
+                                       @Value("${virtual-threads.pinning-monitor.stack-depth:24}") int stackDepth,
+                                       @Value("${virtual-threads.pinning-monitor.report-top:5}") int reportTop) {
+        this.threshold = threshold;
+        this.stackDepth = stackDepth;
+        this.reportTop = reportTop;
+        this.pinnedTimer = Timer.builder("virtual.threads.pinned")
+                .register(meterRegistry);
+        this.untrackedCounter = Counter.builder("virtual.threads.pinned.untracked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${virtual-threads.pinning-monitor.report-interval:PT1M}")
+    public void report() {
+        if (stacks.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> top = stacks.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(reportTop)
+                .toList();
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Long> entry : top) {
+            summary.append(System.lineSeparator()).append(entry.getValue()).append(" pins at:")
+                    .append(System.lineSeparator()).append(entry.getKey());
+        }
+        log.warn("Most frequent pinned virtual thread stacks ({} distinct):{}", stacks.size(), summary);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+
+        String stack = format(event.getStackTrace());
+        LongAdder count = stacks.get(stack);
+        if (count == null) {
+            if (stacks.size() >= MAX_TRACKED_STACKS) {
+                untrackedCounter.increment();
+                return;
+            }
+            count = stacks.computeIfAbsent(stack, key -> new LongAdder());
+            if (count.sum() == 0) {
+                RecordedThread thread = event.getThread();
+                String reason = event.hasField("pinnedReason") ? event.getString("pinnedReason") : "unknown";
+                log.warn("Virtual thread {} pinned its carrier for {} ms ({}):{}{}",
+                        thread == null ? "?" : thread.getJavaName(), event.getDuration().toMillis(), reason,
+                        System.lineSeparator(), stack);
+            }
+        }
+        count.increment();
+    }
+
+    private String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t<no stack trace>";
+        }
+        StringBuilder stack = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(stackDepth, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            if (i > 0) {
+                stack.append(System.lineSeparator());
+            }
+            stack.append("\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
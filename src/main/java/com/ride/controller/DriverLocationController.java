@@ -0,0 +1,52 @@
+package com.ride.controller;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.dto.location.DriverLocationUpdateDTO;
+import com.ride.dto.location.NearbyDriverDTO;
+import com.ride.service.DriverLocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/drivers")
+@RequiredArgsConstructor
+public class DriverLocationController {
+
+    private final DriverLocationService driverLocationService;
+
+    @Operation(summary = "Report the current position of the authenticated driver")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/location")
+    @PreAuthorize("hasRole('DRIVER')")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void updateLocation(@RequestBody @Valid DriverLocationUpdateDTO update) {
+        driverLocationService.updateLocation(update);
+    }
+
+    @Operation(summary = "Find the nearest online drivers to a point")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/nearby")
+    public List<NearbyDriverDTO> findNearby(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "5000") double radiusMeters,
+            @RequestParam(required = false) DriverAvailability availability) {
+        return driverLocationService.findNearby(latitude, longitude, limit, radiusMeters, availability);
+    }
+}
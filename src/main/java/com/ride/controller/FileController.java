@@ -0,0 +1,52 @@
+package com.ride.controller;
+
+import com.ride.service.DocumentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/files")
+@RequiredArgsConstructor
+public class FileController {
+
+    // Documents are personal data: no shared or browser cache may keep them
+    private static final CacheControl NO_STORE = CacheControl.noStore().cachePrivate();
+
+    private final DocumentService documentService;
+
+    @Operation(summary = "Download a stored document (owner or Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{*path}")
+    public ResponseEntity<Resource> getFile(@PathVariable String path) throws IOException {
+        String key = path.substring(1);
+        documentService.checkReadable(key);
+
+        Optional<URI> signedUrl = documentService.signedUrl(key);
+        if (signedUrl.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(signedUrl.get()).cacheControl(NO_STORE).build();
+        }
+        if (!documentService.exists(key)) {
+            return ResponseEntity.notFound().cacheControl(NO_STORE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(NO_STORE)
+                .contentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(new InputStreamResource(documentService.open(key)));
+    }
+}
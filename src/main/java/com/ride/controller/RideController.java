@@ -0,0 +1,54 @@
+package com.ride.controller;
+
+import com.ride.dto.ride.FareQuoteDTO;
+import com.ride.dto.ride.RideRequestDTO;
+import com.ride.dto.ride.RideRequestStatusDTO;
+import com.ride.service.RideService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/rides")
+@RequiredArgsConstructor
+public class RideController {
+
+    private final RideService rideService;
+
+    @Operation(summary = "Quote the fare for a trip, including the current surge in the pickup zone")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/quote")
+    public FareQuoteDTO quote(@RequestBody @Valid RideRequestDTO rideRequest) {
+        return rideService.quote(rideRequest);
+    }
+
+    @Operation(summary = "Request a ride; a driver is assigned in the next dispatch window")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/requests")
+    @PreAuthorize("hasRole('PASSENGER')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RideRequestStatusDTO requestRide(@RequestBody @Valid RideRequestDTO rideRequest) {
+        return rideService.requestRide(rideRequest);
+    }
+
+    @Operation(summary = "Get the dispatch status of one of the authenticated user's ride requests")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/requests/{id}")
+    public RideRequestStatusDTO findRequest(@PathVariable UUID id) {
+        return rideService.findRequest(id);
+    }
+}
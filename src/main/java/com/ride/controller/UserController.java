@@ -1,17 +1,20 @@
 package com.ride.controller;
 
-import com.ride.domain.User;
 import com.ride.domain.enums.UserStatus;
 import com.ride.dto.user.UserGetResponseDTO;
+import com.ride.dto.user.UserImportResultDTO;
+import com.ride.dto.user.UserPageDTO;
 import com.ride.dto.user.UserPhoneNumberRequestDTO;
 import com.ride.dto.user.UserResponseDTO;
 import com.ride.dto.user.UserUpdateDTO;
+import com.ride.service.UserImportService;
 import com.ride.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +22,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -30,6 +38,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @Operation(summary = "Add phone number to a user")
     @SecurityRequirement(name = "bearerAuth")
@@ -39,12 +48,36 @@ public class UserController {
         userService.updateUserAddPhoneNumber(phoneNumber);
     }
 
-    @Operation(summary = "Get all users (Admin only)")
+    @Operation(summary = "List users page by page, ordered by ID (Admin only)")
     @SecurityRequirement(name = "bearerAuth")
     @PostMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<UserPageDTO> getUsers(
+            @RequestParam(required = false) UUID cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.findPage(cursor, limit));
+    }
+
+    @Operation(summary = "Export all users as NDJSON (Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("Exporting users");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService::exportUsers);
+    }
+
+    @Operation(summary = "Import users from a CSV file (Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResultDTO> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Importing users from file: {}", file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importCsv(inputStream));
+        }
     }
 
     @Operation(summary = "Get current authenticated user details")
@@ -0,0 +1,114 @@
+package com.ride.controller;
+
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.wallet.WalletBalanceDTO;
+import com.ride.dto.wallet.WalletEarningsDTO;
+import com.ride.dto.wallet.WalletTransactionPageDTO;
+import com.ride.service.WalletBalanceService;
+import com.ride.service.WalletRollupService;
+import com.ride.service.WalletRollupService.EarningsGranularity;
+import com.ride.service.WalletTransactionService;
+import com.ride.service.WalletTransactionService.ExportSlot;
+import com.ride.service.WalletTransactionService.StatementFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+@Slf4j
+@RestController
+@RequestMapping("/wallets")
+@RequiredArgsConstructor
+public class WalletController {
+
+    private final WalletBalanceService walletBalanceService;
+    private final WalletTransactionService walletTransactionService;
+    private final WalletRollupService walletRollupService;
+
+    @Operation(summary = "Ledger balance of one of the authenticated user's wallets")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{type}/balance")
+    public WalletBalanceDTO getBalance(@PathVariable WalletType type) {
+        return walletBalanceService.findBalance(type);
+    }
+
+    @Operation(summary = "Earnings of one of the authenticated user's wallets per day or month, from rollups")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{type}/earnings")
+    public WalletEarningsDTO getEarnings(
+            @PathVariable WalletType type,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return walletRollupService.findEarnings(type, EarningsGranularity.parse(granularity), from, to);
+    }
+
+    @Operation(summary = "Transactions of one of the authenticated user's wallets, newest first, keyset paginated")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{type}/transactions")
+    public WalletTransactionPageDTO getTransactions(
+            @PathVariable WalletType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return walletTransactionService.findPage(type, cursor, limit);
+    }
+
+    @Operation(summary = "Export a wallet statement as CSV or NDJSON, oldest first")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{type}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable WalletType type,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        StatementFormat statementFormat = StatementFormat.parse(format);
+        Long walletId = walletTransactionService.findWalletId(type);
+        ExportSlot slot = walletTransactionService.acquireExportSlot();
+        try {
+            // The body may never run (executor rejects it, the request times out or the
+            // client goes away first): the end of the async request releases the slot too
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportSlot.class.getName(),
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                            slot.close();
+                        }
+                    });
+            log.info("Exporting {} statement of wallet {}", statementFormat, walletId);
+
+            String filename = "statement-" + type.name().toLowerCase(Locale.ROOT) + "."
+                    + statementFormat.name().toLowerCase(Locale.ROOT);
+            return ResponseEntity.ok()
+                    .contentType(statementFormat == StatementFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .body(out -> {
+                        try (slot) {
+                            walletTransactionService.exportStatement(walletId, statementFormat, from, to, out);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            slot.close();
+            throw e;
+        }
+    }
+}
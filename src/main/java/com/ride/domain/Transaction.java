@@ -28,6 +28,7 @@ import java.time.LocalDateTime;
 @Table(name = "transactions")
 public class Transaction {
 
+    // The partitioned table's key is (id, created_at); ids come from one sequence and are unique on their own
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -15,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -37,7 +38,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Setter
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_cpf", columnNames = "cpf"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+})
 public class User {
 
     @Id
@@ -50,7 +54,7 @@ public class User {
     @Column
     private String email;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String cpf;
 
     @Column
@@ -69,6 +73,12 @@ public class User {
     @Column(name = "carDocumentImageUrl")
     private String carDocumentImageUrl;
 
+    @Column(name = "cnh_thumbnail_url")
+    private String cnhThumbnailUrl;
+
+    @Column(name = "car_document_thumbnail_url")
+    private String carDocumentThumbnailUrl;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
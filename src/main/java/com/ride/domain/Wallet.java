@@ -9,13 +9,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -28,11 +33,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "wallets")
+@Table(name = "wallets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wallets_user_type", columnNames = {"user_id", "type"}))
 public class Wallet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_seq")
+    @SequenceGenerator(name = "wallets_seq", sequenceName = "wallets_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id")
@@ -46,6 +53,18 @@ public class Wallet {
     @Builder.Default
     private BigDecimal balance = BigDecimal.ZERO;
 
+    @Column(name = "shard_count", nullable = false)
+    @Builder.Default
+    private Integer shardCount = 1;
+
+    @Formula("(select coalesce(sum(s.balance), 0) from wallet_shards s where s.wallet_id = id)")
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private BigDecimal shardBalance;
+
+    @Version
+    private Long version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -57,5 +76,23 @@ public class Wallet {
         if (balance == null) {
             balance = BigDecimal.ZERO;
         }
+        if (shardCount == null || shardCount < 1) {
+            shardCount = 1;
+        }
+    }
+
+    /**
+     * Base balance plus the credits still held in shard rows. {@code getBalance()} is
+     * the {@code balance} column only.
+     */
+    public BigDecimal getTotalBalance() {
+        if (balance == null || shardBalance == null) {
+            return balance;
+        }
+        return balance.add(shardBalance);
+    }
+
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 1;
     }
 }
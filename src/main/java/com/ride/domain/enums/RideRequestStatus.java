@@ -0,0 +1,7 @@
+package com.ride.domain.enums;
+
+public enum RideRequestStatus {
+    PENDING,
+    ASSIGNED,
+    UNMATCHED
+}
@@ -4,5 +4,6 @@ public enum WalletType {
     PASSENGER,
     DRIVER,
     INFLUENCER,
-    COMPANY
+    COMPANY,
+    CLEARING
 }
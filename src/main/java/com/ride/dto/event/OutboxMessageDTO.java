@@ -0,0 +1,7 @@
+package com.ride.dto.event;
+
+import java.time.Instant;
+
+public record OutboxMessageDTO(Long id, String aggregateType, String aggregateId, String eventType,
+                               String payload, Instant createdAt) {
+}
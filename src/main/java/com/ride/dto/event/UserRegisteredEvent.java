@@ -0,0 +1,13 @@
+package com.ride.dto.event;
+
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+
+import java.util.UUID;
+
+/**
+ * Published when a user registers. Carries no personal data such as the CPF;
+ * consumers that need it look the user up by id.
+ */
+public record UserRegisteredEvent(UUID userId, UserRole role, UserStatus status) {
+}
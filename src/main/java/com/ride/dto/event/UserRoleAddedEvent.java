@@ -0,0 +1,8 @@
+package com.ride.dto.event;
+
+import com.ride.domain.enums.UserRole;
+
+import java.util.UUID;
+
+public record UserRoleAddedEvent(UUID userId, UserRole role) {
+}
@@ -0,0 +1,8 @@
+package com.ride.dto.event;
+
+import com.ride.domain.enums.UserStatus;
+
+import java.util.UUID;
+
+public record UserStatusChangedEvent(UUID userId, UserStatus status) {
+}
@@ -0,0 +1,33 @@
+package com.ride.dto.ledger;
+
+import com.ride.domain.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+public record LedgerPostingDTO(
+        TransactionType type,
+        Long debitWalletId,
+        Long creditWalletId,
+        BigDecimal amount,
+        String reason,
+        Long referenceId,
+        String referenceType
+) {
+
+    public static LedgerPostingDTO deposit(Long walletId, BigDecimal amount, String reason) {
+        return new LedgerPostingDTO(TransactionType.DEPOSIT, null, walletId, amount, reason, null, null);
+    }
+
+    public static LedgerPostingDTO withdrawal(Long walletId, BigDecimal amount, String reason) {
+        return new LedgerPostingDTO(TransactionType.WITHDRAWAL, walletId, null, amount, reason, null, null);
+    }
+
+    public static LedgerPostingDTO transfer(TransactionType type, Long fromWalletId, Long toWalletId,
+                                            BigDecimal amount, String reason) {
+        return new LedgerPostingDTO(type, fromWalletId, toWalletId, amount, reason, null, null);
+    }
+
+    public LedgerPostingDTO withReference(String referenceType, Long referenceId) {
+        return new LedgerPostingDTO(type, debitWalletId, creditWalletId, amount, reason, referenceId, referenceType);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ride.dto.location;
+
+import com.ride.domain.enums.DriverAvailability;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+public record DriverLocationUpdateDTO(
+        @Schema(description = "Latitude in decimal degrees", example = "-23.5614")
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double latitude,
+
+        @Schema(description = "Longitude in decimal degrees", example = "-46.6559")
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double longitude,
+
+        @Schema(description = "Driver availability, AVAILABLE when omitted", example = "AVAILABLE")
+        DriverAvailability availability,
+
+        @Schema(description = "When the position was recorded on the device, server time when omitted")
+        Instant recordedAt
+) {
+}
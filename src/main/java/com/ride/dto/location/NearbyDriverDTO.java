@@ -0,0 +1,9 @@
+package com.ride.dto.location;
+
+import com.ride.domain.enums.DriverAvailability;
+
+import java.util.UUID;
+
+public record NearbyDriverDTO(UUID driverId, double latitude, double longitude,
+                              DriverAvailability availability, double distanceMeters) {
+}
@@ -0,0 +1,8 @@
+package com.ride.dto.ride;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record FareQuoteDTO(double distanceMeters, long durationSeconds, BigDecimal baseFare,
+                           BigDecimal surgeMultiplier, BigDecimal total, String currency, Instant expiresAt) {
+}
@@ -0,0 +1,25 @@
+package com.ride.dto.ride;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+public record RideRequestDTO(
+        @Schema(description = "Pickup latitude", example = "-23.5614")
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double pickupLatitude,
+
+        @Schema(description = "Pickup longitude", example = "-46.6559")
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double pickupLongitude,
+
+        @Schema(description = "Drop-off latitude", example = "-23.5874")
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double dropoffLatitude,
+
+        @Schema(description = "Drop-off longitude", example = "-46.6576")
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double dropoffLongitude
+) {
+}
@@ -0,0 +1,10 @@
+package com.ride.dto.ride;
+
+import com.ride.domain.enums.RideRequestStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record RideRequestStatusDTO(UUID id, RideRequestStatus status, UUID driverId, Double pickupDistanceMeters,
+                                   Instant requestedAt, Instant assignedAt) {
+}
@@ -2,4 +2,7 @@ package com.ride.dto.user;
 
 public record UserGetResponseDTO(String name, String email, String phoneNumber) {
 
+    public static UserGetResponseDTO from(UserSnapshotDTO user) {
+        return new UserGetResponseDTO(user.name(), user.email(), user.phoneNumber());
+    }
 }
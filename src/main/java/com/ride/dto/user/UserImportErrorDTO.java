@@ -0,0 +1,4 @@
+package com.ride.dto.user;
+
+public record UserImportErrorDTO(long line, String cpf, String message) {
+}
@@ -0,0 +1,6 @@
+package com.ride.dto.user;
+
+import java.util.List;
+
+public record UserImportResultDTO(long imported, long failed, List<UserImportErrorDTO> errors) {
+}
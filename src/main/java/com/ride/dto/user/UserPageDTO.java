@@ -0,0 +1,7 @@
+package com.ride.dto.user;
+
+import java.util.List;
+import java.util.UUID;
+
+public record UserPageDTO(List<UserSummaryDTO> items, UUID nextCursor) {
+}
@@ -1,6 +1,12 @@
 package com.ride.dto.user;
 
+import com.ride.domain.User;
+
 import java.util.UUID;
 
 public record UserResponseDTO(UUID id, String name, String email) {
+
+    public static UserResponseDTO from(User user) {
+        return new UserResponseDTO(user.getId(), user.getName(), user.getEmail());
+    }
 }
@@ -0,0 +1,31 @@
+package com.ride.dto.user;
+
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+
+import java.util.Set;
+import java.util.UUID;
+
+public record UserSnapshotDTO(
+        UUID id,
+        String cpf,
+        String name,
+        String email,
+        String phoneNumber,
+        UserStatus status,
+        Set<UserRole> roles
+) {
+
+    public static UserSnapshotDTO from(User user) {
+        return new UserSnapshotDTO(
+                user.getId(),
+                user.getCpf(),
+                user.getName(),
+                user.getEmail(),
+                user.getPhoneNumber(),
+                user.getStatus(),
+                Set.copyOf(user.getRoles())
+        );
+    }
+}
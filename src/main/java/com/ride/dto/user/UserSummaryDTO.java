@@ -0,0 +1,17 @@
+package com.ride.dto.user;
+
+import com.ride.domain.enums.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record UserSummaryDTO(
+        UUID id,
+        String name,
+        String email,
+        String cpf,
+        String phoneNumber,
+        UserStatus status,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,8 @@
+package com.ride.dto.wallet;
+
+import com.ride.domain.enums.WalletType;
+
+import java.math.BigDecimal;
+
+public record WalletBalanceDTO(Long walletId, WalletType type, BigDecimal balance, Long asOfTransactionId) {
+}
@@ -0,0 +1,19 @@
+package com.ride.dto.wallet;
+
+import com.ride.domain.enums.WalletType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record WalletEarningsDTO(
+        Long walletId,
+        WalletType type,
+        String granularity,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal totalEarned,
+        BigDecimal totalNet,
+        List<WalletEarningsPeriodDTO> periods
+) {
+}
@@ -0,0 +1,13 @@
+package com.ride.dto.wallet;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record WalletEarningsPeriodDTO(
+        LocalDate period,
+        BigDecimal earned,
+        BigDecimal refunded,
+        BigDecimal net,
+        long transactionCount
+) {
+}
@@ -0,0 +1,17 @@
+package com.ride.dto.wallet;
+
+import com.ride.domain.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record WalletTransactionDTO(
+        Long id,
+        TransactionType type,
+        BigDecimal amount,
+        String reason,
+        String referenceType,
+        Long referenceId,
+        LocalDateTime createdAt
+) {
+}
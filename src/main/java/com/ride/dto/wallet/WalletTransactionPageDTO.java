@@ -0,0 +1,6 @@
+package com.ride.dto.wallet;
+
+import java.util.List;
+
+public record WalletTransactionPageDTO(List<WalletTransactionDTO> items, String nextCursor) {
+}
@@ -0,0 +1,50 @@
+package com.ride.repository;
+
+import com.ride.domain.Transaction;
+import com.ride.dto.wallet.WalletTransactionDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    List<Transaction> findByReferenceTypeAndReferenceId(String referenceType, Long referenceId);
+
+    @Query("""
+            select new com.ride.dto.wallet.WalletTransactionDTO(t.id, t.type, t.amount, t.reason, t.referenceType, t.referenceId, t.createdAt)
+            from Transaction t
+            where t.walletId = :walletId
+            order by t.createdAt desc, t.id desc
+            """)
+    List<WalletTransactionDTO> findHistory(Long walletId, Pageable pageable);
+
+    @Query("""
+            select new com.ride.dto.wallet.WalletTransactionDTO(t.id, t.type, t.amount, t.reason, t.referenceType, t.referenceId, t.createdAt)
+            from Transaction t
+            where t.walletId = :walletId and (t.createdAt, t.id) < (:createdAt, :id)
+            order by t.createdAt desc, t.id desc
+            """)
+    List<WalletTransactionDTO> findHistoryBefore(Long walletId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.ride.dto.wallet.WalletTransactionDTO(t.id, t.type, t.amount, t.reason, t.referenceType, t.referenceId, t.createdAt)
+            from Transaction t
+            where t.walletId = :walletId and t.createdAt >= :from and t.createdAt < :to
+            order by t.createdAt, t.id
+            """)
+    Stream<WalletTransactionDTO> streamStatement(Long walletId, LocalDateTime from, LocalDateTime to);
+
+}
@@ -1,11 +1,23 @@
 package com.ride.repository;
 
 import com.ride.domain.User;
+import com.ride.dto.user.UserSummaryDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -14,4 +26,58 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByCpf(String cpf);
 
+    @Query("select u.cpf from User u where u.cpf in :cpfs")
+    Set<String> findExistingCpfs(Collection<String> cpfs);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :currentHash")
+    int updatePasswordHash(UUID id, String currentHash, String newHash);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.cnhThumbnailUrl = :thumbnailUrl where u.id = :id and u.cnhImageUrl = :imageUrl")
+    int updateCnhThumbnailUrl(UUID id, String imageUrl, String thumbnailUrl);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.carDocumentThumbnailUrl = :thumbnailUrl where u.id = :id and u.carDocumentImageUrl = :imageUrl")
+    int updateCarDocumentThumbnailUrl(UUID id, String imageUrl, String thumbnailUrl);
+
+    @Query("""
+            select count(u) > 0 from User u
+            where u.cpf = :cpf
+              and :url in (u.cnhImageUrl, u.carDocumentImageUrl, u.cnhThumbnailUrl, u.carDocumentThumbnailUrl)
+            """)
+    boolean existsByCpfAndDocumentUrl(String cpf, String url);
+
+    @Query("""
+            select new com.ride.dto.user.UserSummaryDTO(u.id, u.name, u.email, u.cpf, u.phoneNumber, u.status, u.createdAt)
+            from User u
+            order by u.id
+            """)
+    List<UserSummaryDTO> findSummaries(Pageable pageable);
+
+    @Query("""
+            select new com.ride.dto.user.UserSummaryDTO(u.id, u.name, u.email, u.cpf, u.phoneNumber, u.status, u.createdAt)
+            from User u
+            where u.id > :after
+            order by u.id
+            """)
+    List<UserSummaryDTO> findSummariesAfter(UUID after, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.ride.dto.user.UserSummaryDTO(u.id, u.name, u.email, u.cpf, u.phoneNumber, u.status, u.createdAt)
+            from User u
+            order by u.id
+            """)
+    Stream<UserSummaryDTO> streamSummaries();
+
 }
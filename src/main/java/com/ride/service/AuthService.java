@@ -3,28 +3,27 @@ package com.ride.service;
 import com.ride.config.AuthenticatedUserUtils;
 import com.ride.config.JWTTokenProvider;
 import com.ride.domain.User;
-import com.ride.domain.Wallet;
 import com.ride.domain.enums.UserRole;
 import com.ride.domain.enums.UserStatus;
 import com.ride.domain.enums.WalletType;
+import com.ride.dto.event.UserRoleAddedEvent;
 import com.ride.dto.login.LoginRequestDTO;
 import com.ride.dto.login.LoginResponseDTO;
 import com.ride.dto.user.UserRequestDTO;
 import com.ride.dto.user.UserResponseDTO;
+import com.ride.dto.user.UserSnapshotDTO;
 import com.ride.repository.UserRepository;
 import com.ride.repository.WalletRepository;
+import com.ride.service.FileStorageService.StoredFile;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.math.BigDecimal;
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -34,17 +33,21 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JWTTokenProvider jwtTokenProvider;
     private final AuthenticatedUserUtils authenticatedUserUtils;
     private final FileStorageService fileStorageService;
+    private final UserRegistrationService userRegistrationService;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentThumbnailService documentThumbnailService;
+    private final OutboxService outboxService;
 
     public LoginResponseDTO login(LoginRequestDTO loginRequestDTO) {
         log.info("Attempting login for CPF: {}", loginRequestDTO.cpf());
         User user = userRepository.findByCpf(loginRequestDTO.cpf())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with CPF: " + loginRequestDTO.cpf()));
 
-        if (!passwordEncoder.matches(loginRequestDTO.password(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(loginRequestDTO.password(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid password");
         }
 
@@ -52,96 +55,61 @@ public class AuthService {
             throw new IllegalArgumentException("User is not active");
         }
 
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            rehashPassword(user, loginRequestDTO.password());
+        }
+
         String token = jwtTokenProvider.generateJwtToken(user);
         return new LoginResponseDTO(user.getName(), user.getEmail(), token, user.getPhoneNumber());
     }
 
-    @Transactional
     public UserResponseDTO registerPassenger(UserRequestDTO userRequestDTO) {
-        checkCpf(userRequestDTO.cpf());
-        if (userRequestDTO.email() != null && !userRequestDTO.email().isBlank()) {
-            checkEmail(userRequestDTO.email());
-        }
-
-        User user = buildUser(userRequestDTO);
-        user.setRoles(new HashSet<>(Set.of(UserRole.PASSENGER)));
-        user.setStatus(UserStatus.ACTIVE);
-
-        User savedUser = userRepository.save(user);
-        createWallet(savedUser, WalletType.PASSENGER);
-
-        return mapToResponse(savedUser);
+        return UserResponseDTO.from(userRegistrationService.register(userRequestDTO, UserRole.PASSENGER));
     }
 
-    @Transactional
     public UserResponseDTO registerAdmin(UserRequestDTO userRequestDTO) {
-        checkCpf(userRequestDTO.cpf());
-        if (userRequestDTO.email() != null && !userRequestDTO.email().isBlank()) {
-            checkEmail(userRequestDTO.email());
-        }
-
-        User user = buildUser(userRequestDTO);
-        user.setRoles(new HashSet<>(Set.of(UserRole.ADMIN)));
-        user.setStatus(UserStatus.ACTIVE);
-
-        User savedUser = userRepository.save(user);
-        createWallet(savedUser, WalletType.COMPANY);
-
-        return mapToResponse(savedUser);
+        return UserResponseDTO.from(userRegistrationService.register(userRequestDTO, UserRole.ADMIN));
     }
 
-    @Transactional
     public UserResponseDTO registerDriver(UserRequestDTO userRequestDTO) {
-        checkCpf(userRequestDTO.cpf());
-        if (userRequestDTO.email() != null && !userRequestDTO.email().isBlank()) {
-            checkEmail(userRequestDTO.email());
-        }
-
-        User user = buildUser(userRequestDTO);
-        user.setRoles(new HashSet<>(Set.of(UserRole.DRIVER)));
-        user.setStatus(UserStatus.PENDING_APPROVAL);
-
-        User savedUser = userRepository.save(user);
-        createWallet(savedUser, WalletType.DRIVER);
-
-        return mapToResponse(savedUser);
+        return UserResponseDTO.from(userRegistrationService.register(userRequestDTO, UserRole.DRIVER));
     }
 
-    @Transactional
     public UserResponseDTO registerInfluencer(UserRequestDTO userRequestDTO) {
-        checkCpf(userRequestDTO.cpf());
-        if (userRequestDTO.email() != null && !userRequestDTO.email().isBlank()) {
-            checkEmail(userRequestDTO.email());
-        }
-
-        User user = buildUser(userRequestDTO);
-        user.setRoles(new HashSet<>(Set.of(UserRole.INFLUENCER)));
-        user.setStatus(UserStatus.ACTIVE);
-
-        User savedUser = userRepository.save(user);
-        createWallet(savedUser, WalletType.INFLUENCER);
-
-        return mapToResponse(savedUser);
+        return UserResponseDTO.from(userRegistrationService.register(userRequestDTO, UserRole.INFLUENCER));
     }
 
-    @Transactional
     public void addRoleDriver(MultipartFile cnhImage, MultipartFile carImage) {
-        User user = authenticatedUserUtils.getUser();
-        if (user.getRoles().contains(UserRole.DRIVER)) {
+        UserSnapshotDTO current = authenticatedUserUtils.getUserSnapshot();
+        if (current.roles().contains(UserRole.DRIVER)) {
             throw new IllegalArgumentException("User is already a driver");
         }
 
-        String cnhUrl = fileStorageService.uploadFile(cnhImage);
-        String carUrl = fileStorageService.uploadFile(carImage);
+        // Both documents are durable before the transaction opens, so no connection is held during the uploads
+        List<StoredFile> documents = fileStorageService.uploadFiles(cnhImage, carImage);
 
         // TODO: Implementar validacao dos documentos
 
-        user.setCnhImageUrl(cnhUrl);
-        user.setCarDocumentImageUrl(carUrl);
-        user.getRoles().add(UserRole.DRIVER);
-
-        userRepository.save(user);
-        createWallet(user, WalletType.DRIVER);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(current.id())
+                    .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + current.id()));
+            if (user.getRoles().contains(UserRole.DRIVER)) {
+                throw new IllegalArgumentException("User is already a driver");
+            }
+
+            user.setCnhImageUrl(documents.get(0).url());
+            user.setCarDocumentImageUrl(documents.get(1).url());
+            user.setCnhThumbnailUrl(null);
+            user.setCarDocumentThumbnailUrl(null);
+            user.getRoles().add(UserRole.DRIVER);
+
+            userRepository.save(user);
+            authenticatedUserUtils.evict(user);
+            createWallet(user, WalletType.DRIVER);
+            outboxService.recordUserEvent(user.getId(), new UserRoleAddedEvent(user.getId(), UserRole.DRIVER));
+        });
+
+        documentThumbnailService.generateDriverThumbnails(current.id(), documents.get(0), documents.get(1));
     }
 
     @Transactional
@@ -154,7 +122,9 @@ public class AuthService {
         }
         user.getRoles().add(UserRole.INFLUENCER);
         userRepository.save(user);
+        authenticatedUserUtils.evict(user);
         createWallet(user, WalletType.INFLUENCER);
+        outboxService.recordUserEvent(user.getId(), new UserRoleAddedEvent(user.getId(), UserRole.INFLUENCER));
     }
 
     @Transactional
@@ -167,7 +137,22 @@ public class AuthService {
         }
         user.getRoles().add(UserRole.ADMIN);
         userRepository.save(user);
+        authenticatedUserUtils.evict(user);
         createWallet(user, WalletType.COMPANY);
+        outboxService.recordUserEvent(user.getId(), new UserRoleAddedEvent(user.getId(), UserRole.ADMIN));
+    }
+
+    private void rehashPassword(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        passwordHashingService.encodeAsync(rawPassword)
+                .thenAccept(newHash -> {
+                    userRepository.updatePasswordHash(user.getId(), currentHash, newHash);
+                    log.info("Password hash upgraded for user {}", user.getId());
+                })
+                .exceptionally(e -> {
+                    log.debug("Password hash upgrade skipped for user {}: {}", user.getId(), e.getMessage());
+                    return null;
+                });
     }
 
     private void createWallet(User user, WalletType type) {
@@ -175,41 +160,6 @@ public class AuthService {
             return;
         }
 
-        Wallet wallet = Wallet.builder()
-                .userId(user.getId())
-                .type(type)
-                .balance(BigDecimal.ZERO)
-                .build();
-        walletRepository.save(wallet);
-    }
-
-    private void checkEmail(String email) {
-        Optional<User> byEmail = userRepository.findByEmail(email);
-        if (byEmail.isPresent()) {
-            throw new IllegalArgumentException("User already exists with email: " + email);
-        }
-    }
-
-    private void checkCpf(String cpf) {
-        Optional<User> byCpf = userRepository.findByCpf(cpf);
-        if (byCpf.isPresent()) {
-            throw new IllegalArgumentException("User already exists with CPF: " + cpf);
-        }
-    }
-
-    private User buildUser(UserRequestDTO dto) {
-        User user = new User();
-        user.setName(dto.name());
-        user.setEmail(dto.email());
-        user.setCpf(dto.cpf());
-        user.setPasswordHash(passwordEncoder.encode(dto.password()));
-        user.setImageUrl(dto.imageUrl());
-        user.setBalance(BigDecimal.ZERO);
-        user.setPhoneNumber(null);
-        return user;
-    }
-
-    private UserResponseDTO mapToResponse(User user) {
-        return new UserResponseDTO(user.getId(), user.getName(), user.getEmail());
+        walletRepository.save(userRegistrationService.newWallet(user.getId(), type));
     }
 }
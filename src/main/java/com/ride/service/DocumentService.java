@@ -0,0 +1,59 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.enums.UserRole;
+import com.ride.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Reads stored documents for {@code /files/**}. Driver documents (CNH, vehicle
+ * registration) and their thumbnails are personal data: only the user whose record
+ * references the object and admins may read it.
+ */
+@Service
+public class DocumentService {
+
+    private final ObjectStorage objectStorage;
+    private final UserRepository userRepository;
+    private final AuthenticatedUserUtils authenticatedUserUtils;
+    private final Duration signedUrlTtl;
+
+    public DocumentService(ObjectStorage objectStorage,
+                           UserRepository userRepository,
+                           AuthenticatedUserUtils authenticatedUserUtils,
+                           @Value("${storage.signed-url-ttl:PT5M}") Duration signedUrlTtl) {
+        this.objectStorage = objectStorage;
+        this.userRepository = userRepository;
+        this.authenticatedUserUtils = authenticatedUserUtils;
+        this.signedUrlTtl = signedUrlTtl;
+    }
+
+    public void checkReadable(String key) {
+        if (authenticatedUserUtils.getUserSnapshot().roles().contains(UserRole.ADMIN)) {
+            return;
+        }
+        if (!userRepository.existsByCpfAndDocumentUrl(authenticatedUserUtils.getCpf(), objectStorage.url(key))) {
+            throw new AccessDeniedException("Not allowed to read " + key);
+        }
+    }
+
+    public boolean exists(String key) {
+        return objectStorage.exists(key);
+    }
+
+    public Optional<URI> signedUrl(String key) {
+        return objectStorage.signedUrl(key, signedUrlTtl);
+    }
+
+    public InputStream open(String key) throws IOException {
+        return objectStorage.get(key);
+    }
+}
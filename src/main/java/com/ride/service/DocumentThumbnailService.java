@@ -0,0 +1,177 @@
+package com.ride.service;
+
+import com.ride.repository.UserRepository;
+import com.ride.service.FileStorageService.StoredFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Produces downscaled JPEG thumbnails of driver documents for reviewers. Work runs
+ * on a small bounded pool after the upload request has returned; when the queue is
+ * full the thumbnail is skipped and reviewers fall back to the original. Thumbnails
+ * are keyed by the source hash, so a document is only processed once. Images are
+ * checked against a pixel limit from their header and decoded subsampled, so a huge
+ * upload never has to fit in memory at full resolution.
+ */
+@Slf4j
+@Service
+public class DocumentThumbnailService {
+
+    private final ObjectStorage objectStorage;
+    private final UserRepository userRepository;
+    private final ThreadPoolExecutor executor;
+    private final Path stagingDir;
+    private final int maxDimension;
+    private final long maxPixels;
+    private final Timer thumbnailTimer;
+    private final Counter skippedCounter;
+
+    public DocumentThumbnailService(ObjectStorage objectStorage,
+                                    UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${storage.thumbnail.threads:2}") int threads,
+                                    @Value("${storage.thumbnail.queue-capacity:100}") int queueCapacity,
+                                    @Value("${storage.thumbnail.max-dimension:512}") int maxDimension,
+                                    @Value("${storage.thumbnail.max-pixels:50000000}") long maxPixels,
+                                    @Value("${storage.staging-dir:${java.io.tmpdir}/ride-uploads}") String stagingDir) throws IOException {
+        this.objectStorage = objectStorage;
+        this.userRepository = userRepository;
+        this.maxDimension = maxDimension;
+        this.maxPixels = maxPixels;
+        this.stagingDir = Files.createDirectories(Path.of(stagingDir));
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("document-thumbnail-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.thumbnailTimer = Timer.builder("storage.thumbnail")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("storage.thumbnail.skipped")
+                .register(meterRegistry);
+    }
+
+    public void generateDriverThumbnails(UUID userId, StoredFile cnh, StoredFile carDocument) {
+        submit(cnh, thumbnailUrl -> userRepository.updateCnhThumbnailUrl(userId, cnh.url(), thumbnailUrl));
+        submit(carDocument, thumbnailUrl -> userRepository.updateCarDocumentThumbnailUrl(userId, carDocument.url(), thumbnailUrl));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void submit(StoredFile source, Consumer<String> recorder) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String thumbnailUrl = thumbnailTimer.recordCallable(() -> thumbnail(source));
+                    if (thumbnailUrl != null) {
+                        recorder.accept(thumbnailUrl);
+                    }
+                } catch (Exception e) {
+                    skippedCounter.increment();
+                    log.warn("Thumbnail for {} failed: {}", source.key(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            skippedCounter.increment();
+            log.warn("Thumbnail queue full, skipping {}", source.key());
+        }
+    }
+
+    private String thumbnail(StoredFile source) throws IOException {
+        String key = "thumbnails/" + source.hash() + ".jpg";
+        if (objectStorage.exists(key)) {
+            return objectStorage.url(key);
+        }
+
+        BufferedImage image;
+        try (InputStream content = objectStorage.get(source.key());
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            image = input == null ? null : decode(source, input);
+        }
+        if (image == null) {
+            log.debug("{} is not a readable image, no thumbnail", source.key());
+            return null;
+        }
+
+        Path staged = Files.createTempFile(stagingDir, "thumbnail-", ".jpg");
+        try {
+            if (!ImageIO.write(downscale(image), "jpg", staged.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            objectStorage.put(key, staged, "image/jpeg");
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+        return objectStorage.url(key);
+    }
+
+    // Reads the size from the header first, then decodes every n-th pixel so the result
+    // is still at least maxDimension on its longer side.
+    private BufferedImage decode(StoredFile source, ImageInputStream input) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxPixels) {
+                throw new IOException(source.key() + " is " + width + "x" + height + ", over the pixel limit");
+            }
+
+            int step = Math.max(1, Math.max(width, height) / maxDimension);
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private BufferedImage downscale(BufferedImage image) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
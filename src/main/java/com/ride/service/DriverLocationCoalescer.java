@@ -0,0 +1,125 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffers streamed driver positions and applies only the latest one per driver to
+ * the {@link DriverLocationIndex} on each tick. Every driver has one reusable slot;
+ * a ping overwrites it in place and queues the slot only when it was clean, so a
+ * burst of pings costs one index update per tick. {@link #remove} drops the slot,
+ * including a pending update, and the driver's indexed position.
+ */
+@Slf4j
+@Component
+public class DriverLocationCoalescer {
+
+    private final DriverLocationIndex driverLocationIndex;
+    private final ConcurrentHashMap<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> dirty = new ConcurrentLinkedQueue<>();
+    private final long slotIdleMillis;
+    private final Counter receivedCounter;
+    private final Counter appliedCounter;
+
+    public DriverLocationCoalescer(DriverLocationIndex driverLocationIndex,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${driver-location.stale-after:PT30S}") Duration slotIdle) {
+        this.driverLocationIndex = driverLocationIndex;
+        this.slotIdleMillis = slotIdle.toMillis();
+        this.receivedCounter = Counter.builder("driver.location.stream.received").register(meterRegistry);
+        this.appliedCounter = Counter.builder("driver.location.stream.applied").register(meterRegistry);
+    }
+
+    public void offer(UUID driverId, double latitude, double longitude, DriverAvailability availability, long recordedAt) {
+        receivedCounter.increment();
+        long now = System.currentTimeMillis();
+        long timestamp = Math.min(now, recordedAt);
+
+        Slot slot = slots.computeIfAbsent(driverId, Slot::new);
+        boolean enqueue;
+        synchronized (slot) {
+            if (slot.dirty && timestamp < slot.timestamp) {
+                return;
+            }
+            slot.latitude = latitude;
+            slot.longitude = longitude;
+            slot.availability = availability;
+            slot.timestamp = timestamp;
+            slot.touchedAt = now;
+            enqueue = !slot.dirty;
+            slot.dirty = true;
+        }
+        if (enqueue) {
+            dirty.add(slot);
+        }
+    }
+
+    public void remove(UUID driverId) {
+        Slot slot = slots.remove(driverId);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.removed = true;
+            }
+        }
+        driverLocationIndex.remove(driverId);
+    }
+
+    @Scheduled(fixedDelayString = "${driver-location.stream.tick:PT1S}")
+    public void flush() {
+        Slot slot;
+        while ((slot = dirty.poll()) != null) {
+            double latitude;
+            double longitude;
+            DriverAvailability availability;
+            long timestamp;
+            synchronized (slot) {
+                if (slot.removed) {
+                    continue;
+                }
+                latitude = slot.latitude;
+                longitude = slot.longitude;
+                availability = slot.availability;
+                timestamp = slot.timestamp;
+                slot.dirty = false;
+            }
+            driverLocationIndex.update(slot.driverId, latitude, longitude, availability, timestamp);
+            appliedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${driver-location.sweep-interval:PT10S}")
+    public void removeIdleSlots() {
+        long cutoff = System.currentTimeMillis() - slotIdleMillis;
+        slots.values().removeIf(slot -> {
+            synchronized (slot) {
+                return !slot.dirty && slot.touchedAt < cutoff;
+            }
+        });
+    }
+
+    private static final class Slot {
+
+        private final UUID driverId;
+        private double latitude;
+        private double longitude;
+        private DriverAvailability availability;
+        private long timestamp;
+        private long touchedAt;
+        private boolean dirty;
+        private boolean removed;
+
+        private Slot(UUID driverId) {
+            this.driverId = driverId;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory index of online driver positions on a fixed lat/lon grid. The latest
+ * position of each driver lives in {@code positions}; every grid cell keeps the
+ * drivers currently inside it. Updates are atomic per driver (the driver's bin in
+ * {@code positions}, then the affected cell bins, always in that order), so they
+ * contend only with pings for the same driver or cell. Queries read cells without
+ * locking and scan rings of cells outwards from the query point until nothing
+ * outside the ring can be closer; circles that reach a pole check every driver.
+ */
+@Slf4j
+@Component
+public class DriverLocationIndex {
+
+    private final ConcurrentHashMap<UUID, DriverPosition> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<UUID, DriverPosition>> cells = new ConcurrentHashMap<>();
+    private final List<PositionListener> listeners = new CopyOnWriteArrayList<>();
+    private final double cellSizeDegrees;
+    private final int rows;
+    private final int columns;
+    private final long staleAfterMillis;
+
+    public DriverLocationIndex(@Value("${driver-location.cell-size-degrees:0.01}") double cellSizeDegrees,
+                               @Value("${driver-location.stale-after:PT30S}") Duration staleAfter,
+                               MeterRegistry meterRegistry) {
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.rows = (int) Math.ceil(180 / cellSizeDegrees);
+        this.columns = (int) Math.ceil(360 / cellSizeDegrees);
+        this.staleAfterMillis = staleAfter.toMillis();
+
+        Gauge.builder("driver.location.online", positions, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("driver.location.cells", cells, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a position ping. Pings older than the stored one are ignored, and
+     * {@link DriverAvailability#OFFLINE} removes the driver.
+     *
+     * @return whether the ping was applied
+     */
+    public boolean update(UUID driverId, double latitude, double longitude, DriverAvailability availability, long timestamp) {
+        if (availability == DriverAvailability.OFFLINE) {
+            return remove(driverId);
+        }
+
+        long cellKey = cellKey(latitude, longitude);
+        boolean[] applied = {false};
+        positions.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.timestamp() > timestamp) {
+                return previous;
+            }
+
+            // A dispatcher reservation holds until the driver reports ON_TRIP or it expires
+            long reservedUntil = 0;
+            DriverAvailability effective = availability;
+            if (previous != null && previous.reservedUntil() > System.currentTimeMillis()
+                    && availability == DriverAvailability.AVAILABLE) {
+                reservedUntil = previous.reservedUntil();
+                effective = DriverAvailability.ON_TRIP;
+            }
+
+            DriverPosition next = new DriverPosition(id, latitude, longitude, effective, cellKey, timestamp, reservedUntil);
+            if (previous != null && previous.cellKey() != cellKey) {
+                removeFromCell(previous);
+            }
+            addToCell(next);
+            notifyListeners(previous, next);
+            applied[0] = true;
+            return next;
+        });
+        return applied[0];
+    }
+
+    /**
+     * Atomically moves an AVAILABLE driver to ON_TRIP for {@code ttlMillis}, during
+     * which AVAILABLE pings from the driver do not release it.
+     *
+     * @return whether the driver was available and is now reserved
+     */
+    public boolean tryReserve(UUID driverId, long ttlMillis) {
+        boolean[] reserved = {false};
+        positions.computeIfPresent(driverId, (id, current) -> {
+            if (current.availability() != DriverAvailability.AVAILABLE) {
+                return current;
+            }
+            DriverPosition next = new DriverPosition(id, current.latitude(), current.longitude(),
+                    DriverAvailability.ON_TRIP, current.cellKey(), current.timestamp(), System.currentTimeMillis() + ttlMillis);
+            addToCell(next);
+            notifyListeners(current, next);
+            reserved[0] = true;
+            return next;
+        });
+        return reserved[0];
+    }
+
+    public boolean remove(UUID driverId) {
+        boolean[] removed = {false};
+        positions.computeIfPresent(driverId, (id, previous) -> {
+            removeFromCell(previous);
+            notifyListeners(previous, null);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Registers a callback for every applied change. It runs while the driver's entry
+     * is locked, so it must be cheap and must not call back into the index.
+     */
+    public void addListener(PositionListener listener) {
+        listeners.add(listener);
+    }
+
+    public DriverPosition get(UUID driverId) {
+        return positions.get(driverId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Returns up to {@code limit} drivers within {@code radiusMeters}, closest first,
+     * whose availability is in {@code availabilities}.
+     */
+    public List<DriverMatch> nearest(double latitude, double longitude, int limit, double radiusMeters,
+                                     Set<DriverAvailability> availabilities) {
+        PriorityQueue<DriverMatch> best = new PriorityQueue<>(Comparator.comparingDouble(DriverMatch::distanceMeters).reversed());
+
+        // Highest latitude a match can have; cells narrow towards it
+        double maxLatitude = Math.abs(latitude) + Math.toDegrees(radiusMeters / GeoUtils.EARTH_RADIUS_METERS) + cellSizeDegrees;
+        if (maxLatitude >= 90) {
+            // The circle may cross a pole, where a match can be in any column: check every driver
+            for (DriverPosition position : positions.values()) {
+                consider(position, latitude, longitude, limit, radiusMeters, availabilities, best);
+            }
+        } else {
+            Set<UUID> seen = new HashSet<>();
+            int centerRow = row(latitude);
+            int centerColumn = column(longitude);
+            double cosMaxLatitude = Math.cos(Math.toRadians(maxLatitude));
+
+            for (int ring = 0; ; ring++) {
+                scanRing(centerRow, centerColumn, ring, latitude, longitude, limit, radiusMeters, availabilities, best, seen);
+
+                double outside = distanceOutsideRing(centerRow, ring, cosMaxLatitude);
+                if (outside >= radiusMeters || (best.size() == limit && best.peek().distanceMeters() <= outside)) {
+                    break;
+                }
+                // Near the poles cells get thin; once the next ring holds more cells than
+                // there are drivers, checking the rest directly is cheaper
+                long nextRingCells = 8L * (ring + 1);
+                if (nextRingCells > positions.size()) {
+                    for (DriverPosition position : positions.values()) {
+                        if (seen.add(position.driverId())) {
+                            consider(position, latitude, longitude, limit, radiusMeters, availabilities, best);
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+
+        List<DriverMatch> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(DriverMatch::distanceMeters));
+        return result;
+    }
+
+    public List<DriverMatch> withinRadius(double latitude, double longitude, double radiusMeters,
+                                          Set<DriverAvailability> availabilities) {
+        return nearest(latitude, longitude, Integer.MAX_VALUE, radiusMeters, availabilities);
+    }
+
+    @Scheduled(fixedDelayString = "${driver-location.sweep-interval:PT10S}")
+    public void removeStale() {
+        long cutoff = System.currentTimeMillis() - staleAfterMillis;
+        int removed = 0;
+        for (DriverPosition position : positions.values()) {
+            if (position.timestamp() < cutoff && removeIfOlder(position.driverId(), cutoff)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Removed {} stale driver positions", removed);
+        }
+    }
+
+    private boolean removeIfOlder(UUID driverId, long cutoff) {
+        boolean[] removed = {false};
+        positions.computeIfPresent(driverId, (id, current) -> {
+            if (current.timestamp() >= cutoff) {
+                return current;
+            }
+            removeFromCell(current);
+            notifyListeners(current, null);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private void scanRing(int centerRow, int centerColumn, int ring, double latitude, double longitude, int limit,
+                          double radiusMeters, Set<DriverAvailability> availabilities,
+                          PriorityQueue<DriverMatch> best, Set<UUID> seen) {
+        for (int dRow = -ring; dRow <= ring; dRow++) {
+            int row = centerRow + dRow;
+            if (row < 0 || row >= rows) {
+                continue;
+            }
+            boolean edgeRow = Math.abs(dRow) == ring;
+            int step = edgeRow ? 1 : 2 * ring;
+            for (int dColumn = -ring; dColumn <= ring; dColumn += Math.max(1, step)) {
+                ConcurrentHashMap<UUID, DriverPosition> drivers = cells.get(key(row, Math.floorMod(centerColumn + dColumn, columns)));
+                if (drivers == null) {
+                    continue;
+                }
+                for (DriverPosition position : drivers.values()) {
+                    if (seen.add(position.driverId())) {
+                        consider(position, latitude, longitude, limit, radiusMeters, availabilities, best);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void consider(DriverPosition position, double latitude, double longitude, int limit,
+                                 double radiusMeters, Set<DriverAvailability> availabilities, PriorityQueue<DriverMatch> best) {
+        if (!availabilities.contains(position.availability())) {
+            return;
+        }
+        double distance = GeoUtils.haversineMeters(latitude, longitude, position.latitude(), position.longitude());
+        if (distance > radiusMeters) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(new DriverMatch(position, distance));
+        } else if (distance < best.peek().distanceMeters()) {
+            best.poll();
+            best.add(new DriverMatch(position, distance));
+        }
+    }
+
+    /**
+     * Lower bound on the distance to any driver outside {@code ring}: it is more than
+     * {@code ring} rows away in latitude, or more than {@code ring} columns away in
+     * longitude at a latitude of at most {@code maxLatitude}. Infinite once the ring
+     * covers every row and column.
+     */
+    private double distanceOutsideRing(int centerRow, int ring, double cosMaxLatitude) {
+        double angle = Math.toRadians(ring * cellSizeDegrees);
+        double byRow = centerRow - ring <= 0 && centerRow + ring >= rows - 1
+                ? Double.POSITIVE_INFINITY
+                : GeoUtils.EARTH_RADIUS_METERS * angle;
+        double byColumn = 2 * ring + 1 >= columns
+                ? Double.POSITIVE_INFINITY
+                : 2 * GeoUtils.EARTH_RADIUS_METERS * cosMaxLatitude * Math.sin(Math.min(Math.PI / 2, angle / 2));
+        return Math.min(byRow, byColumn);
+    }
+
+    private void notifyListeners(DriverPosition previous, DriverPosition next) {
+        for (PositionListener listener : listeners) {
+            listener.onChange(previous, next);
+        }
+    }
+
+    private void addToCell(DriverPosition position) {
+        cells.compute(position.cellKey(), (key, drivers) -> {
+            ConcurrentHashMap<UUID, DriverPosition> cell = drivers == null ? new ConcurrentHashMap<>() : drivers;
+            cell.put(position.driverId(), position);
+            return cell;
+        });
+    }
+
+    private void removeFromCell(DriverPosition position) {
+        cells.computeIfPresent(position.cellKey(), (key, drivers) -> {
+            drivers.remove(position.driverId());
+            return drivers.isEmpty() ? null : drivers;
+        });
+    }
+
+    public long cellKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    private int row(double latitude) {
+        return Math.clamp((long) Math.floor((latitude + 90) / cellSizeDegrees), 0, rows - 1);
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((long) Math.floor((longitude + 180) / cellSizeDegrees), columns);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    public record DriverPosition(UUID driverId, double latitude, double longitude,
+                                 DriverAvailability availability, long cellKey, long timestamp, long reservedUntil) {
+    }
+
+    public record DriverMatch(DriverPosition position, double distanceMeters) {
+    }
+
+    @FunctionalInterface
+    public interface PositionListener {
+
+        /**
+         * @param previous the replaced position, {@code null} for a new driver
+         * @param next     the new position, {@code null} when the driver was removed
+         */
+        void onChange(DriverPosition previous, DriverPosition next);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.location.DriverLocationUpdateDTO;
+import com.ride.dto.location.NearbyDriverDTO;
+import com.ride.dto.user.UserSnapshotDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DriverLocationService {
+
+    private static final int MAX_NEARBY_LIMIT = 100;
+
+    private final DriverLocationIndex driverLocationIndex;
+    private final AuthenticatedUserUtils authenticatedUserUtils;
+
+    @Value("${driver-location.nearby.max-radius-meters:20000}")
+    private double maxRadiusMeters;
+
+    public void updateLocation(DriverLocationUpdateDTO update) {
+        UserSnapshotDTO driver = authenticatedUserUtils.getUserSnapshot();
+        if (!driver.roles().contains(UserRole.DRIVER)) {
+            throw new IllegalArgumentException("User is not a driver");
+        }
+        if (driver.status() != UserStatus.ACTIVE) {
+            throw new IllegalArgumentException("Driver is not active");
+        }
+
+        updateLocation(driver.id(), update);
+    }
+
+    public void updateLocation(UUID driverId, DriverLocationUpdateDTO update) {
+        if (!GeoUtils.isValid(update.latitude(), update.longitude())) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+
+        long now = System.currentTimeMillis();
+        long timestamp = update.recordedAt() == null ? now : Math.min(now, update.recordedAt().toEpochMilli());
+        DriverAvailability availability = update.availability() == null ? DriverAvailability.AVAILABLE : update.availability();
+        driverLocationIndex.update(driverId, update.latitude(), update.longitude(), availability, timestamp);
+    }
+
+    public List<NearbyDriverDTO> findNearby(double latitude, double longitude, int limit, double radiusMeters,
+                                            DriverAvailability availability) {
+        if (!GeoUtils.isValid(latitude, longitude)) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+
+        Set<DriverAvailability> availabilities = availability == null
+                ? EnumSet.of(DriverAvailability.AVAILABLE)
+                : EnumSet.of(availability);
+        return driverLocationIndex.nearest(latitude, longitude, Math.clamp(limit, 1, MAX_NEARBY_LIMIT),
+                        Math.clamp(radiusMeters, 1, maxRadiusMeters), availabilities)
+                .stream()
+                .map(match -> new NearbyDriverDTO(
+                        match.position().driverId(),
+                        match.position().latitude(),
+                        match.position().longitude(),
+                        match.position().availability(),
+                        match.distanceMeters()))
+                .toList();
+    }
+
+    public void removeDriver(UUID driverId) {
+        driverLocationIndex.remove(driverId);
+    }
+}
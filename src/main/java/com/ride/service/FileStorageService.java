@@ -1,25 +1,194 @@
 package com.ride.service;
 
+import com.ride.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+/**
+ * Streams uploads into the configured {@link ObjectStorage} under content-addressed
+ * keys ({@code documents/<sha256>.<ext>}). Each upload is spooled to a staging file
+ * while its SHA-256 is computed; when the object already exists the staged copy is
+ * dropped, so retries and re-submissions cost no extra storage. Several files of one
+ * request are written in parallel on a bounded pool and the call returns only once
+ * every object is durable.
+ */
 @Slf4j
 @Service
 public class FileStorageService {
 
-    public String uploadFile(MultipartFile file) {
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
 
-        // TODO: Implementar integração com AWS S3
-        // AmazonS3 s3Client = ...
-        // s3Client.putObject(...)
+    private final ObjectStorage objectStorage;
+    private final ThreadPoolExecutor executor;
+    private final Path stagingDir;
+    private final Timer storedTimer;
+    private final Timer deduplicatedTimer;
+    private final Timer failedTimer;
+    private final DistributionSummary sizeSummary;
 
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        log.info("Simulating upload to S3 for file: {}", fileName);
+    public FileStorageService(ObjectStorage objectStorage,
+                              MeterRegistry meterRegistry,
+                              @Value("${storage.upload.threads:8}") int threads,
+                              @Value("${storage.upload.queue-capacity:64}") int queueCapacity,
+                              @Value("${storage.staging-dir:${java.io.tmpdir}/ride-uploads}") String stagingDir) throws IOException {
+        this.objectStorage = objectStorage;
+        this.stagingDir = Files.createDirectories(Path.of(stagingDir));
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("file-upload-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
 
-        // Retorna uma URL fictícia por enquanto
-        return "https://s3.amazonaws.com/ride-bucket/" + fileName;
+        this.storedTimer = uploadTimer(meterRegistry, "stored");
+        this.deduplicatedTimer = uploadTimer(meterRegistry, "deduplicated");
+        this.failedTimer = uploadTimer(meterRegistry, "failed");
+        this.sizeSummary = DistributionSummary.builder("storage.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public StoredFile uploadFile(MultipartFile file) {
+        String contentType = file.getContentType() == null ? DEFAULT_CONTENT_TYPE : file.getContentType();
+
+        long start = System.nanoTime();
+        Timer timer = failedTimer;
+        Path staged = null;
+        try {
+            staged = Files.createTempFile(stagingDir, "upload-", ".tmp");
+            String hash = spool(file, staged);
+            String key = "documents/" + hash + extension(file.getOriginalFilename());
+
+            if (objectStorage.exists(key)) {
+                Files.deleteIfExists(staged);
+                timer = deduplicatedTimer;
+                log.info("File {} already stored, skipping upload", key);
+            } else {
+                objectStorage.put(key, staged, contentType);
+                timer = storedTimer;
+                log.info("Stored file {} ({} bytes)", key, file.getSize());
+            }
+            sizeSummary.record(file.getSize());
+            return new StoredFile(key, hash, objectStorage.url(key));
+        } catch (IOException e) {
+            deleteStaged(staged);
+            throw new UncheckedIOException("Failed to store file: " + file.getOriginalFilename(), e);
+        } catch (RuntimeException e) {
+            deleteStaged(staged);
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Uploads all files in parallel. Objects are content-addressed and may be shared,
+     * so nothing is deleted when one upload fails; orphans only cost storage.
+     */
+    public List<StoredFile> uploadFiles(MultipartFile... files) {
+        List<CompletableFuture<StoredFile>> uploads = new ArrayList<>(files.length);
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(CompletableFuture.supplyAsync(() -> uploadFile(file), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many concurrent uploads, try again later");
+        }
+
+        try {
+            return uploads.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("File upload failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer uploadTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("storage.upload")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String spool(MultipartFile file, Path staged) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream content = new DigestInputStream(file.getInputStream(), digest);
+             ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel channel = FileChannel.open(staged, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            channel.force(true);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String extension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static void deleteStaged(Path staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", staged, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record StoredFile(String key, String hash, String url) {
     }
 }
@@ -0,0 +1,33 @@
+package com.ride.service;
+
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE_LAT = 110_574.0;
+
+    private GeoUtils() {
+    }
+
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Key of the {@code sizeDegrees} lat/lon cell containing the point, used for
+     * dispatch and pricing zones.
+     */
+    public static long zoneKey(double latitude, double longitude, double sizeDegrees) {
+        long row = (long) Math.floor((latitude + 90) / sizeDegrees);
+        long column = (long) Math.floor((longitude + 180) / sizeDegrees);
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    public static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
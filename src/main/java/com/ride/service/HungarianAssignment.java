@@ -0,0 +1,90 @@
+package com.ride.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment (Hungarian algorithm with potentials, O(n^2 m)) for an
+ * n x m cost matrix. When there are more rows than columns the matrix is padded
+ * with {@link #INFEASIBLE} columns, so every row gets a column but some of them
+ * are unusable.
+ */
+public final class HungarianAssignment {
+
+    public static final double INFEASIBLE = 1e12;
+
+    private HungarianAssignment() {
+    }
+
+    /**
+     * @return for each row, the assigned column, or {@code -1} when the row only had infeasible options
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = Math.max(rows, cost[0].length);
+
+        double[] u = new double[rows + 1];
+        double[] v = new double[columns + 1];
+        int[] p = new int[columns + 1];
+        int[] way = new int[columns + 1];
+        double[] minv = new double[columns + 1];
+        boolean[] used = new boolean[columns + 1];
+
+        for (int i = 1; i <= rows; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= columns; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double current = cost(cost, i0 - 1, j - 1) - u[i0] - v[j];
+                    if (current < minv[j]) {
+                        minv[j] = current;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= columns; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= columns; j++) {
+            int row = p[j] - 1;
+            if (row >= 0 && cost(cost, row, j - 1) < INFEASIBLE) {
+                assignment[row] = j - 1;
+            }
+        }
+        return assignment;
+    }
+
+    private static double cost(double[][] cost, int row, int column) {
+        return column < cost[row].length ? cost[row][column] : INFEASIBLE;
+    }
+}
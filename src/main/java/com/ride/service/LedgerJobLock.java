@@ -0,0 +1,53 @@
+package com.ride.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a ledger job on one connection while holding a session-level Postgres advisory
+ * lock ({@code pg_try_advisory_lock}), so across instances only one runs it at a time.
+ * An instance that doesn't get the lock skips that run instead of waiting. The job gets
+ * a {@link JdbcTemplate} bound to the locked connection; its statements still commit
+ * one by one.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerJobLock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return whether the lock was free and {@code job} ran
+     */
+    public boolean runExclusively(long key, Consumer<JdbcTemplate> job) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!call(connection, "SELECT pg_try_advisory_lock(?)", key)) {
+                return false;
+            }
+            try {
+                job.accept(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+                return true;
+            } finally {
+                call(connection, "SELECT pg_advisory_unlock(?)", key);
+            }
+        }));
+    }
+
+    private static boolean call(Connection connection, String sql, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.ride.service;
+
+import com.ride.dto.ledger.LedgerPostingDTO;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Double-entry posting engine. Every posting is written as two {@code transactions}
+ * rows (debit negative, credit positive), so the ledger sums to zero. Deposits and
+ * withdrawals post their other leg against the system {@code CLEARING} wallet. The
+ * balance of a wallet is the sum of its rows. Wallet balances are moved with
+ * {@code balance = balance + delta} updates, aggregated per wallet and applied in
+ * wallet id order, instead of read-modify-write on the entity. Credits to sharded
+ * wallets, and every delta of the clearing wallet, go to one of their shard rows
+ * (see {@link WalletShardService}). Every posting is also added to the wallets' daily
+ * and monthly rollups (see {@link WalletRollupService}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private static final int MAX_REASON_LENGTH = 120;
+
+    private static final String APPLY_DELTA_SQL = """
+            UPDATE wallets
+               SET balance = balance + ?, version = version + 1
+             WHERE id = ? AND (? >= 0 OR balance + ? >= 0)
+            """;
+
+    private static final String INSERT_TRANSACTION_SQL = """
+            INSERT INTO transactions (wallet_id, type, amount, reason, reference_id, reference_type, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletShardService walletShardService;
+    private final WalletRollupService walletRollupService;
+
+    @Value("${ledger.batch-size:500}")
+    private int batchSize;
+
+    private volatile Long clearingWalletId;
+
+    @Transactional
+    public void post(LedgerPostingDTO posting) {
+        postAll(List.of(posting));
+    }
+
+    @Transactional
+    public void postAll(List<LedgerPostingDTO> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+
+        List<Leg> legs = new ArrayList<>(postings.size() * 2);
+        for (LedgerPostingDTO posting : postings) {
+            validate(posting);
+            Long debitWalletId = posting.debitWalletId() == null ? clearingWalletId() : posting.debitWalletId();
+            Long creditWalletId = posting.creditWalletId() == null ? clearingWalletId() : posting.creditWalletId();
+            legs.add(new Leg(debitWalletId, posting.amount().negate(), posting));
+            legs.add(new Leg(creditWalletId, posting.amount(), posting));
+        }
+
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        for (Leg leg : legs) {
+            deltas.merge(leg.walletId(), leg.amount(), BigDecimal::add);
+        }
+
+        LocalDateTime postedAt = LocalDateTime.now();
+        applyDeltas(deltas);
+        insertLegs(legs, postedAt);
+        walletRollupService.record(legs.stream()
+                .map(leg -> new WalletRollupService.RollupEntry(leg.walletId(), leg.posting().type(), leg.amount()))
+                .toList(), postedAt);
+        log.debug("Posted {} ledger entries across {} wallets", legs.size(), deltas.size());
+    }
+
+    private void applyDeltas(Map<Long, BigDecimal> deltas) {
+        Map<Long, BigDecimal> shardCredits = new TreeMap<>();
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>();
+        Long clearing = clearingWalletId();
+        for (Map.Entry<Long, BigDecimal> entry : deltas.entrySet()) {
+            // The clearing wallet may go negative and is touched by every deposit, so it always uses shards
+            if (entry.getKey().equals(clearing)
+                    || entry.getValue().signum() > 0 && walletShardService.shardCount(entry.getKey()) > 1) {
+                shardCredits.put(entry.getKey(), entry.getValue());
+            } else {
+                entries.add(entry);
+            }
+        }
+
+        List<Object[]> args = entries.stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey(), entry.getValue(), entry.getValue()})
+                .toList();
+
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                retryDelta(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+
+        if (!shardCredits.isEmpty()) {
+            walletShardService.credit(shardCredits);
+        }
+    }
+
+    private Long clearingWalletId() {
+        Long id = clearingWalletId;
+        if (id == null) {
+            id = jdbcTemplate.queryForObject("SELECT id FROM wallets WHERE type = 'CLEARING'", Long.class);
+            clearingWalletId = id;
+        }
+        return id;
+    }
+
+    // Retried even when nothing was compacted here: a concurrent compaction may just have moved the shards in
+    private void retryDelta(Long walletId, BigDecimal delta) {
+        if (walletShardService.shardCount(walletId) > 1) {
+            walletShardService.compact(walletId);
+            if (jdbcTemplate.update(APPLY_DELTA_SQL, delta, walletId, delta, delta) == 1) {
+                return;
+            }
+        }
+        rejectDelta(walletId);
+    }
+
+    private void rejectDelta(Long walletId) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM wallets WHERE id = ?", Integer.class, walletId);
+        if (exists == null || exists == 0) {
+            throw new EntityNotFoundException("Wallet not found with ID: " + walletId);
+        }
+        throw new IllegalArgumentException("Insufficient balance in wallet: " + walletId);
+    }
+
+    private void insertLegs(List<Leg> legs, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, legs, batchSize, (ps, leg) -> {
+            LedgerPostingDTO posting = leg.posting();
+            ps.setLong(1, leg.walletId());
+            ps.setString(2, posting.type().name());
+            ps.setBigDecimal(3, leg.amount());
+            ps.setString(4, posting.reason());
+            ps.setObject(5, posting.referenceId(), Types.BIGINT);
+            ps.setString(6, posting.referenceType());
+            ps.setTimestamp(7, timestamp);
+        });
+    }
+
+    private void validate(LedgerPostingDTO posting) {
+        if (posting.type() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        if (posting.amount() == null || posting.amount().signum() <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
+        if (posting.reason() == null || posting.reason().isBlank() || posting.reason().length() > MAX_REASON_LENGTH) {
+            throw new IllegalArgumentException("Transaction reason must have between 1 and " + MAX_REASON_LENGTH + " characters");
+        }
+
+        boolean hasDebit = posting.debitWalletId() != null;
+        boolean hasCredit = posting.creditWalletId() != null;
+        boolean valid = switch (posting.type()) {
+            case DEPOSIT -> !hasDebit && hasCredit;
+            case WITHDRAWAL -> hasDebit && !hasCredit;
+            case TRANSFER, PAYMENT, REFUND -> hasDebit && hasCredit
+                    && !posting.debitWalletId().equals(posting.creditWalletId());
+        };
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid wallets for " + posting.type() + " transaction");
+        }
+    }
+
+    private record Leg(Long walletId, BigDecimal amount, LedgerPostingDTO posting) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ride.service;
+
+import com.ride.dto.event.OutboxMessageDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * In-process stand-in for a message broker: every outbox message becomes a Spring
+ * application event ({@code @EventListener OutboxMessageDTO}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "local", matchIfMissing = true)
+public class LocalOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessageDTO> messages) {
+        for (OutboxMessageDTO message : messages) {
+            log.debug("Publishing {} for {} {}", message.eventType(), message.aggregateType(), message.aggregateId());
+            applicationEventPublisher.publishEvent(message);
+        }
+    }
+}
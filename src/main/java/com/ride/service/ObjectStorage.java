@@ -0,0 +1,34 @@
+package com.ride.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface ObjectStorage {
+
+    /**
+     * Stores a local file under {@code key}. The file is consumed: it is moved or deleted.
+     */
+    void put(String key, Path file, String contentType) throws IOException;
+
+    boolean exists(String key);
+
+    InputStream get(String key) throws IOException;
+
+    /**
+     * URL of the object behind the authenticated {@code /files/**} endpoint; objects are
+     * never served from a public location.
+     */
+    String url(String key);
+
+    /**
+     * A URL the client may fetch the object from directly for {@code ttl}, or empty when
+     * the backend can only serve it through {@link #get}.
+     */
+    default Optional<URI> signedUrl(String key, Duration ttl) {
+        return Optional.empty();
+    }
+}
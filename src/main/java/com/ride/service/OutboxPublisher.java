@@ -0,0 +1,14 @@
+package com.ride.service;
+
+import com.ride.dto.event.OutboxMessageDTO;
+
+import java.util.List;
+
+public interface OutboxPublisher {
+
+    /**
+     * Publishes a batch in outbox order. Throwing leaves the whole batch in the
+     * outbox to be retried, so delivery is at-least-once.
+     */
+    void publish(List<OutboxMessageDTO> messages);
+}
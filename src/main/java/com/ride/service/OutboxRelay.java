@@ -0,0 +1,87 @@
+package com.ride.service;
+
+import com.ride.domain.OutboxEvent;
+import com.ride.dto.event.OutboxMessageDTO;
+import com.ride.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains {@code outbox_events} in batches. Each batch is locked with
+ * {@code FOR UPDATE SKIP LOCKED}, published, and deleted in the same transaction,
+ * so several nodes can relay concurrently without handing out the same event twice.
+ * If publishing fails the transaction rolls back and the batch is retried on the
+ * next run.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Timer batchTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxPublisher outboxPublisher,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchTimer = Timer.builder("outbox.relay.batch").register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.relay.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int published;
+            try {
+                published = batchTimer.record(this::relayBatch);
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Outbox batch failed, will retry: {}", e.getMessage());
+                return;
+            }
+            if (published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            outboxPublisher.publish(events.stream()
+                    .map(event -> new OutboxMessageDTO(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                            event.getEventType(), event.getPayload(), event.getCreatedAt()))
+                    .toList());
+            outboxEventRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+            return events.size();
+        });
+        publishedCounter.increment(published == null ? 0 : published);
+        return published == null ? 0 : published;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ride.service;
+
+import com.ride.domain.OutboxEvent;
+import com.ride.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.UUID;
+
+/**
+ * Writes domain events to the {@code outbox_events} table. Recording requires the
+ * caller's transaction, so an event exists if and only if its state change committed;
+ * {@link OutboxRelay} delivers it afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    public static final String USER_AGGREGATE = "User";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserEvent(UUID userId, Object event) {
+        record(USER_AGGREGATE, userId.toString(), event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, String aggregateId, Object event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(event.getClass().getSimpleName())
+                .payload(objectMapper.writeValueAsString(event))
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.ride.service;
+
+import com.ride.dto.ride.FareQuoteDTO;
+import com.ride.service.ZoneMarketState.ZoneSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Quotes fares from in-memory state only: straight-line distance scaled by a route
+ * factor, an estimated duration at an average city speed, and a surge multiplier
+ * from the pickup zone's current demand/supply ratio in {@link ZoneMarketState}.
+ */
+@Service
+public class PricingService {
+
+    private static final BigDecimal SURGE_STEP = new BigDecimal("0.1");
+
+    private final ZoneMarketState zoneMarketState;
+    private final Timer quoteTimer;
+
+    private final BigDecimal baseFare;
+    private final BigDecimal perKm;
+    private final BigDecimal perMinute;
+    private final BigDecimal minimumFare;
+    private final String currency;
+    private final double routeFactor;
+    private final double averageSpeedMetersPerSecond;
+    private final double recentDemandWeight;
+    private final double surgeThreshold;
+    private final double surgeSensitivity;
+    private final double maxSurge;
+    private final Duration quoteTtl;
+
+    public PricingService(ZoneMarketState zoneMarketState,
+                          MeterRegistry meterRegistry,
+                          @Value("${pricing.base-fare:5.00}") BigDecimal baseFare,
+                          @Value("${pricing.per-km:1.80}") BigDecimal perKm,
+                          @Value("${pricing.per-minute:0.35}") BigDecimal perMinute,
+                          @Value("${pricing.minimum-fare:9.00}") BigDecimal minimumFare,
+                          @Value("${pricing.currency:BRL}") String currency,
+                          @Value("${pricing.route-factor:1.3}") double routeFactor,
+                          @Value("${pricing.average-speed-kmh:25}") double averageSpeedKmh,
+                          @Value("${pricing.surge.recent-demand-weight:0.2}") double recentDemandWeight,
+                          @Value("${pricing.surge.threshold:1.0}") double surgeThreshold,
+                          @Value("${pricing.surge.sensitivity:0.5}") double surgeSensitivity,
+                          @Value("${pricing.surge.max:3.0}") double maxSurge,
+                          @Value("${pricing.quote-ttl:PT2M}") Duration quoteTtl) {
+        this.zoneMarketState = zoneMarketState;
+        this.baseFare = baseFare;
+        this.perKm = perKm;
+        this.perMinute = perMinute;
+        this.minimumFare = minimumFare;
+        this.currency = currency;
+        this.routeFactor = routeFactor;
+        this.averageSpeedMetersPerSecond = averageSpeedKmh / 3.6;
+        this.recentDemandWeight = recentDemandWeight;
+        this.surgeThreshold = surgeThreshold;
+        this.surgeSensitivity = surgeSensitivity;
+        this.maxSurge = maxSurge;
+        this.quoteTtl = quoteTtl;
+
+        this.quoteTimer = Timer.builder("pricing.quote")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public FareQuoteDTO quote(double pickupLatitude, double pickupLongitude, double dropoffLatitude, double dropoffLongitude) {
+        if (!GeoUtils.isValid(pickupLatitude, pickupLongitude) || !GeoUtils.isValid(dropoffLatitude, dropoffLongitude)) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        return quoteTimer.record(() -> {
+            double distanceMeters = GeoUtils.haversineMeters(pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude) * routeFactor;
+            long durationSeconds = Math.round(distanceMeters / averageSpeedMetersPerSecond);
+
+            BigDecimal fare = baseFare
+                    .add(perKm.multiply(BigDecimal.valueOf(distanceMeters / 1000)))
+                    .add(perMinute.multiply(BigDecimal.valueOf(durationSeconds / 60.0)))
+                    .max(minimumFare);
+            BigDecimal surge = surgeMultiplier(zoneMarketState.snapshot(pickupLatitude, pickupLongitude));
+
+            return new FareQuoteDTO(
+                    Math.round(distanceMeters),
+                    durationSeconds,
+                    fare.setScale(2, RoundingMode.HALF_UP),
+                    surge,
+                    fare.multiply(surge).setScale(2, RoundingMode.HALF_UP),
+                    currency,
+                    Instant.now().plus(quoteTtl));
+        });
+    }
+
+    // 1.0 while demand per free driver stays under the threshold, then linear, in 0.1 steps
+    BigDecimal surgeMultiplier(ZoneSnapshot zone) {
+        double demand = zone.openRequests() + recentDemandWeight * zone.recentRequests();
+        double pressure = demand / Math.max(1, zone.availableDrivers());
+        double multiplier = Math.clamp(1 + surgeSensitivity * (pressure - surgeThreshold), 1.0, maxSurge);
+        return BigDecimal.valueOf(multiplier)
+                .divide(SURGE_STEP, 0, RoundingMode.HALF_UP)
+                .multiply(SURGE_STEP);
+    }
+}
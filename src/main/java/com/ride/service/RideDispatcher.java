@@ -0,0 +1,298 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.domain.enums.RideRequestStatus;
+import com.ride.service.DriverLocationIndex.DriverMatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batched ride dispatch. Requests are queued per zone (a coarse lat/lon cell) and,
+ * once per window, each zone's queue is solved as one minimum total pickup distance
+ * assignment against the available drivers near its requests. Zones are solved in
+ * parallel on a bounded pool, at most one batch per zone at a time. A chosen driver
+ * is claimed through {@link DriverLocationIndex#tryReserve}, so overlapping zones
+ * cannot assign the same driver twice; requests that lose a driver or find none
+ * wait for the next window until {@code dispatch.max-wait}.
+ */
+@Slf4j
+@Component
+public class RideDispatcher {
+
+    private static final Set<DriverAvailability> AVAILABLE = EnumSet.of(DriverAvailability.AVAILABLE);
+
+    private final DriverLocationIndex driverLocationIndex;
+    private final ZoneMarketState zoneMarketState;
+    private final ConcurrentHashMap<UUID, DispatchRequest> requests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<DispatchRequest>> pendingByZone = new ConcurrentHashMap<>();
+    private final Set<Long> zonesInFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor zoneExecutor;
+
+    private final Duration window;
+    private final double zoneSizeDegrees;
+    private final int maxBatchSize;
+    private final int candidatesPerRequest;
+    private final double maxPickupMeters;
+    private final long maxWaitNanos;
+    private final long reservationTtlMillis;
+    private final long retentionNanos;
+
+    private final Timer dispatchLatency;
+    private final Timer batchTimer;
+    private final Counter requestedCounter;
+    private final Counter assignedCounter;
+    private final Counter unmatchedCounter;
+
+    public RideDispatcher(DriverLocationIndex driverLocationIndex,
+                          ZoneMarketState zoneMarketState,
+                          MeterRegistry meterRegistry,
+                          @Value("${dispatch.window:PT2S}") Duration window,
+                          @Value("${dispatch.zone-size-degrees:0.05}") double zoneSizeDegrees,
+                          @Value("${dispatch.zone-threads:4}") int zoneThreads,
+                          @Value("${dispatch.max-batch-size:200}") int maxBatchSize,
+                          @Value("${dispatch.candidates-per-request:8}") int candidatesPerRequest,
+                          @Value("${dispatch.max-pickup-meters:5000}") double maxPickupMeters,
+                          @Value("${dispatch.max-wait:PT60S}") Duration maxWait,
+                          @Value("${dispatch.reservation-ttl:PT30S}") Duration reservationTtl,
+                          @Value("${dispatch.retention:PT10M}") Duration retention) {
+        this.driverLocationIndex = driverLocationIndex;
+        this.zoneMarketState = zoneMarketState;
+        this.window = window;
+        this.zoneSizeDegrees = zoneSizeDegrees;
+        this.maxBatchSize = maxBatchSize;
+        this.candidatesPerRequest = candidatesPerRequest;
+        this.maxPickupMeters = maxPickupMeters;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.reservationTtlMillis = reservationTtl.toMillis();
+        this.retentionNanos = retention.toNanos();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("dispatch-scheduler").daemon(true).factory());
+        this.zoneExecutor = new ThreadPoolExecutor(zoneThreads, zoneThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024),
+                Thread.ofPlatform().name("dispatch-zone-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.dispatchLatency = Timer.builder("ride.dispatch.latency")
+                .description("Time from ride request to driver assignment")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("ride.dispatch.batch")
+                .description("Time to solve one zone batch")
+                .register(meterRegistry);
+        this.requestedCounter = Counter.builder("ride.dispatch.requests").register(meterRegistry);
+        this.assignedCounter = Counter.builder("ride.dispatch.assigned").register(meterRegistry);
+        this.unmatchedCounter = Counter.builder("ride.dispatch.unmatched").register(meterRegistry);
+        Gauge.builder("ride.dispatch.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long period = window.toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        zoneExecutor.shutdownNow();
+    }
+
+    public DispatchRequest submit(UUID passengerId, double pickupLatitude, double pickupLongitude,
+                                  double dropoffLatitude, double dropoffLongitude) {
+        DispatchRequest request = new DispatchRequest(UUID.randomUUID(), passengerId,
+                pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude);
+        requests.put(request.getId(), request);
+        pendingByZone.computeIfAbsent(GeoUtils.zoneKey(pickupLatitude, pickupLongitude, zoneSizeDegrees),
+                        zone -> new ConcurrentLinkedQueue<>())
+                .add(request);
+        pendingCount.incrementAndGet();
+        zoneMarketState.requestOpened(pickupLatitude, pickupLongitude);
+        requestedCounter.increment();
+        return request;
+    }
+
+    public DispatchRequest find(UUID requestId) {
+        return requests.get(requestId);
+    }
+
+    /**
+     * Runs one dispatch window synchronously and waits for every zone batch.
+     */
+    public void dispatchNow() {
+        for (Future<?> batch : tick()) {
+            try {
+                batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Dispatch batch failed", e.getCause());
+            }
+        }
+    }
+
+    private List<Future<?>> tick() {
+        List<Future<?>> batches = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, ConcurrentLinkedQueue<DispatchRequest>> zone : pendingByZone.entrySet()) {
+                if (zone.getValue().isEmpty() || !zonesInFlight.add(zone.getKey())) {
+                    continue;
+                }
+                try {
+                    batches.add(zoneExecutor.submit(() -> runZone(zone.getKey(), zone.getValue())));
+                } catch (RejectedExecutionException e) {
+                    zonesInFlight.remove(zone.getKey());
+                    log.warn("Dispatch pool saturated, zone {} waits for the next window", zone.getKey());
+                }
+            }
+            evictCompleted();
+        } catch (RuntimeException e) {
+            log.error("Dispatch tick failed", e);
+        }
+        return batches;
+    }
+
+    private void runZone(long zoneKey, ConcurrentLinkedQueue<DispatchRequest> queue) {
+        try {
+            List<DispatchRequest> batch = new ArrayList<>(Math.min(maxBatchSize, queue.size()));
+            long now = System.nanoTime();
+            DispatchRequest request;
+            while (batch.size() < maxBatchSize && (request = queue.poll()) != null) {
+                if (now - request.requestedNanos > maxWaitNanos) {
+                    request.status = RideRequestStatus.UNMATCHED;
+                    pendingCount.decrementAndGet();
+                    zoneMarketState.requestClosed(request.pickupLatitude, request.pickupLongitude);
+                    unmatchedCounter.increment();
+                } else {
+                    batch.add(request);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<DispatchRequest> retry = batchTimer.record(() -> assign(batch));
+                queue.addAll(retry);
+            }
+        } finally {
+            zonesInFlight.remove(zoneKey);
+        }
+    }
+
+    /**
+     * @return the requests that got no driver in this window
+     */
+    private List<DispatchRequest> assign(List<DispatchRequest> batch) {
+        Map<UUID, Integer> driverColumns = new LinkedHashMap<>();
+        List<DriverMatch> drivers = new ArrayList<>();
+        for (DispatchRequest request : batch) {
+            for (DriverMatch match : driverLocationIndex.nearest(request.pickupLatitude, request.pickupLongitude,
+                    candidatesPerRequest, maxPickupMeters, AVAILABLE)) {
+                if (driverColumns.putIfAbsent(match.position().driverId(), drivers.size()) == null) {
+                    drivers.add(match);
+                }
+            }
+        }
+        if (drivers.isEmpty()) {
+            return batch;
+        }
+
+        double[][] cost = new double[batch.size()][drivers.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            DispatchRequest request = batch.get(i);
+            for (int j = 0; j < drivers.size(); j++) {
+                DriverMatch driver = drivers.get(j);
+                double distance = GeoUtils.haversineMeters(request.pickupLatitude, request.pickupLongitude,
+                        driver.position().latitude(), driver.position().longitude());
+                cost[i][j] = distance <= maxPickupMeters ? distance : HungarianAssignment.INFEASIBLE;
+            }
+        }
+
+        int[] assignment = HungarianAssignment.solve(cost);
+        List<DispatchRequest> unassigned = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            DispatchRequest request = batch.get(i);
+            int column = assignment[i];
+            UUID driverId = column < 0 ? null : drivers.get(column).position().driverId();
+            if (driverId == null || !driverLocationIndex.tryReserve(driverId, reservationTtlMillis)) {
+                unassigned.add(request);
+                continue;
+            }
+
+            request.driverId = driverId;
+            request.pickupDistanceMeters = cost[i][column];
+            request.assignedAt = Instant.now();
+            request.completedNanos = System.nanoTime();
+            request.status = RideRequestStatus.ASSIGNED;
+            pendingCount.decrementAndGet();
+            zoneMarketState.requestClosed(request.pickupLatitude, request.pickupLongitude);
+            assignedCounter.increment();
+            dispatchLatency.record(request.completedNanos - request.requestedNanos, TimeUnit.NANOSECONDS);
+        }
+        return unassigned;
+    }
+
+    private void evictCompleted() {
+        long now = System.nanoTime();
+        requests.values().removeIf(request -> request.status != RideRequestStatus.PENDING
+                && now - request.requestedNanos > retentionNanos);
+    }
+
+    @Getter
+    public static final class DispatchRequest {
+
+        private final UUID id;
+        private final UUID passengerId;
+        private final double pickupLatitude;
+        private final double pickupLongitude;
+        private final double dropoffLatitude;
+        private final double dropoffLongitude;
+        private final Instant requestedAt = Instant.now();
+        private final long requestedNanos = System.nanoTime();
+        private volatile RideRequestStatus status = RideRequestStatus.PENDING;
+        private volatile UUID driverId;
+        private volatile Double pickupDistanceMeters;
+        private volatile Instant assignedAt;
+        private volatile long completedNanos;
+
+        private DispatchRequest(UUID id, UUID passengerId, double pickupLatitude, double pickupLongitude,
+                                double dropoffLatitude, double dropoffLongitude) {
+            this.id = id;
+            this.passengerId = passengerId;
+            this.pickupLatitude = pickupLatitude;
+            this.pickupLongitude = pickupLongitude;
+            this.dropoffLatitude = dropoffLatitude;
+            this.dropoffLongitude = dropoffLongitude;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.ride.FareQuoteDTO;
+import com.ride.dto.ride.RideRequestDTO;
+import com.ride.dto.ride.RideRequestStatusDTO;
+import com.ride.dto.user.UserSnapshotDTO;
+import com.ride.service.RideDispatcher.DispatchRequest;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RideService {
+
+    private final RideDispatcher rideDispatcher;
+    private final PricingService pricingService;
+    private final AuthenticatedUserUtils authenticatedUserUtils;
+
+    public RideRequestStatusDTO requestRide(RideRequestDTO rideRequest) {
+        UserSnapshotDTO passenger = authenticatedUserUtils.getUserSnapshot();
+        if (!passenger.roles().contains(UserRole.PASSENGER)) {
+            throw new IllegalArgumentException("User is not a passenger");
+        }
+        if (passenger.status() != UserStatus.ACTIVE) {
+            throw new IllegalArgumentException("User is not active");
+        }
+
+        DispatchRequest request = rideDispatcher.submit(passenger.id(),
+                rideRequest.pickupLatitude(), rideRequest.pickupLongitude(),
+                rideRequest.dropoffLatitude(), rideRequest.dropoffLongitude());
+        log.info("Ride request {} queued for passenger {}", request.getId(), passenger.id());
+        return toStatus(request);
+    }
+
+    public FareQuoteDTO quote(RideRequestDTO rideRequest) {
+        return pricingService.quote(rideRequest.pickupLatitude(), rideRequest.pickupLongitude(),
+                rideRequest.dropoffLatitude(), rideRequest.dropoffLongitude());
+    }
+
+    public RideRequestStatusDTO findRequest(UUID requestId) {
+        UserSnapshotDTO user = authenticatedUserUtils.getUserSnapshot();
+        DispatchRequest request = rideDispatcher.find(requestId);
+        if (request == null || !request.getPassengerId().equals(user.id())) {
+            throw new EntityNotFoundException("Ride request not found with ID: " + requestId);
+        }
+        return toStatus(request);
+    }
+
+    private static RideRequestStatusDTO toStatus(DispatchRequest request) {
+        return new RideRequestStatusDTO(
+                request.getId(),
+                request.getStatus(),
+                request.getDriverId(),
+                request.getPickupDistanceMeters(),
+                request.getRequestedAt(),
+                request.getAssignedAt());
+    }
+}
@@ -0,0 +1,64 @@
+package com.ride.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free event counter over a sliding time window split into fixed buckets.
+ * Each bucket packs its epoch tag (high 24 bits) and count (low 40 bits) into one
+ * long, so an increment is a single CAS and a bucket left over from an older
+ * lap of the ring is reset by the first writer that reaches it.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 40;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long EPOCH_MASK = (1L << (Long.SIZE - COUNT_BITS)) - 1;
+
+    private final AtomicLongArray buckets;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+
+    public SlidingWindowCounter(Duration window, int bucketCount) {
+        this(window, bucketCount, System::currentTimeMillis);
+    }
+
+    public SlidingWindowCounter(Duration window, int bucketCount, LongSupplier clock) {
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.clock = clock;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        long epoch = clock.getAsLong() / bucketMillis;
+        int index = (int) (epoch % buckets.length());
+        long tag = epoch & EPOCH_MASK;
+
+        long current;
+        long next;
+        do {
+            current = buckets.get(index);
+            next = (current >>> COUNT_BITS) == tag
+                    ? current + delta
+                    : (tag << COUNT_BITS) | delta;
+        } while (!buckets.compareAndSet(index, current, next));
+    }
+
+    public long sum() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        long total = 0;
+        for (int age = 0; age < buckets.length(); age++) {
+            long bucketEpoch = epoch - age;
+            long value = buckets.get((int) (bucketEpoch % buckets.length()));
+            if ((value >>> COUNT_BITS) == (bucketEpoch & EPOCH_MASK)) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ride.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps monthly {@code transactions} partitions created {@code months-ahead} months in
+ * advance, on startup and then daily, so postings never land in
+ * {@code transactions_default}. Creating a partition only takes a brief lock on the
+ * parent and existing partitions are skipped, so several instances may run it.
+ */
+@Slf4j
+@Component
+public class TransactionPartitionMaintenance {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String DEFAULT_HAS_ROWS_SQL = "SELECT EXISTS (SELECT 1 FROM transactions_default)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Counter createdCounter;
+
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${ledger.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.createdCounter = Counter.builder("ledger.partitions.created").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ledger.partitions.cron:0 0 3 * * *}")
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int month = 0; month <= monthsAhead; month++) {
+            try {
+                createPartition(current.plusMonths(month));
+            } catch (DataAccessException e) {
+                log.warn("Failed to create transactions partition for {}", current.plusMonths(month), e);
+            }
+        }
+
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS_SQL, Boolean.class))) {
+            log.warn("transactions_default holds rows; move them into monthly partitions");
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "transactions_" + month.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF transactions"
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        createdCounter.increment();
+        log.info("Created transactions partition {}", name);
+    }
+}
@@ -0,0 +1,310 @@
+package com.ride.service;
+
+import com.ride.domain.User;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.UserRole;
+import com.ride.dto.user.UserImportErrorDTO;
+import com.ride.dto.user.UserImportResultDTO;
+import com.ride.dto.user.UserRequestDTO;
+import com.ride.repository.UserRepository;
+import com.ride.repository.WalletRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Imports users from a CSV stream with the header
+ * {@code role,name,email,cpf,password,imageUrl} (column order is free, quoted
+ * fields may not span lines). The file is read and written in chunks: duplicates
+ * are checked with one query per chunk, and users, roles and wallets are
+ * inserted through Hibernate JDBC batching. Invalid rows are reported and
+ * skipped; the rest of the file is still imported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("role", "cpf", "password");
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final UserRegistrationService userRegistrationService;
+
+    @Value("${user.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${user.import.hashing-parallelism:2}")
+    private int hashingParallelism;
+
+    @Value("${user.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public UserImportResultDTO importCsv(InputStream inputStream) throws IOException {
+        ImportReport report = new ImportReport(maxReportedErrors);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("Import file is empty");
+            }
+            Map<String, Integer> columns = parseHeader(headerLine);
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportRow row = parseRow(lineNumber, parseCsvLine(line), columns, report);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, report);
+            }
+        }
+
+        log.info("User import finished: {} imported, {} failed", report.imported, report.failed);
+        return report.toResult();
+    }
+
+    private void importChunk(List<ImportRow> rows, ImportReport report) {
+        List<ImportRow> accepted = removeDuplicates(rows, report);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<PreparedUser> prepared = hashPasswords(accepted, report);
+        try {
+            persist(prepared);
+            report.imported += prepared.size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Import chunk rejected by database, retrying {} rows one by one", prepared.size());
+            for (PreparedUser user : prepared) {
+                try {
+                    persist(List.of(user));
+                    report.imported++;
+                } catch (DataIntegrityViolationException rowError) {
+                    report.fail(user.row(), "User already exists");
+                }
+            }
+        }
+    }
+
+    private List<ImportRow> removeDuplicates(List<ImportRow> rows, ImportReport report) {
+        Set<String> cpfs = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : rows) {
+            cpfs.add(row.request().cpf());
+            if (row.request().email() != null) {
+                emails.add(row.request().email());
+            }
+        }
+
+        Set<String> existingCpfs = userRepository.findExistingCpfs(cpfs);
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : userRepository.findExistingEmails(emails);
+
+        Set<String> seenCpfs = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            String cpf = row.request().cpf();
+            String email = row.request().email();
+            if (existingCpfs.contains(cpf) || !seenCpfs.add(cpf)) {
+                report.fail(row, "User already exists with CPF: " + cpf);
+            } else if (email != null && (existingEmails.contains(email) || !seenEmails.add(email))) {
+                report.fail(row, "User already exists with email: " + email);
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private List<PreparedUser> hashPasswords(List<ImportRow> rows, ImportReport report) {
+        List<PreparedUser> prepared = new ArrayList<>(rows.size());
+        int parallelism = Math.max(1, hashingParallelism);
+
+        for (int start = 0; start < rows.size(); start += parallelism) {
+            List<ImportRow> window = rows.subList(start, Math.min(rows.size(), start + parallelism));
+            List<CompletableFuture<String>> hashes = window.stream()
+                    .map(row -> passwordHashingService.encodeAsync(row.request().password()))
+                    .toList();
+
+            for (int i = 0; i < window.size(); i++) {
+                ImportRow row = window.get(i);
+                try {
+                    prepared.add(new PreparedUser(row, hashes.get(i).join()));
+                } catch (CompletionException e) {
+                    report.fail(row, "Password hashing unavailable, retry this row later");
+                }
+            }
+        }
+        return prepared;
+    }
+
+    // Builds fresh entities on every attempt: after a rolled-back batch the previous ones
+    // already carry generated ids and would be merged instead of inserted.
+    private void persist(List<PreparedUser> prepared) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = userRepository.saveAll(prepared.stream()
+                    .map(user -> userRegistrationService.newUser(user.row().request(), user.row().role(), user.passwordHash()))
+                    .toList());
+            List<Wallet> wallets = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                UserRole role = prepared.get(i).row().role();
+                wallets.add(userRegistrationService.newWallet(users.get(i).getId(), UserRegistrationService.walletTypeFor(role)));
+                userRegistrationService.recordRegistered(users.get(i), role);
+            }
+            walletRepository.saveAll(wallets);
+        });
+    }
+
+    private ImportRow parseRow(long lineNumber, List<String> fields, Map<String, Integer> columns, ImportReport report) {
+        String roleValue = field(fields, columns, "role");
+        String cpf = field(fields, columns, "cpf");
+        UserRequestDTO request = new UserRequestDTO(
+                field(fields, columns, "name"),
+                field(fields, columns, "email"),
+                cpf,
+                field(fields, columns, "password"),
+                field(fields, columns, "imageUrl"));
+        ImportRow row = new ImportRow(lineNumber, null, request);
+
+        UserRole role;
+        try {
+            role = UserRole.valueOf(roleValue == null ? "" : roleValue.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            report.fail(row, "Invalid role: " + roleValue);
+            return null;
+        }
+        if (role == UserRole.ADMIN) {
+            report.fail(row, "Admin users cannot be imported");
+            return null;
+        }
+        if (cpf == null || request.password() == null) {
+            report.fail(row, "CPF and password are required");
+            return null;
+        }
+
+        Set<ConstraintViolation<UserRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserRequestDTO> violation = violations.iterator().next();
+            report.fail(row, violation.getPropertyPath() + " " + violation.getMessage());
+            return null;
+        }
+        return new ImportRow(lineNumber, role, request);
+    }
+
+    private static Map<String, Integer> parseHeader(String headerLine) {
+        List<String> names = parseCsvLine(headerLine.startsWith("\uFEFF") ? headerLine.substring(1) : headerLine);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Import file is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private record ImportRow(long line, UserRole role, UserRequestDTO request) {
+    }
+
+    private record PreparedUser(ImportRow row, String passwordHash) {
+    }
+
+    private static final class ImportReport {
+
+        private final int maxReportedErrors;
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private ImportReport(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(ImportRow row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportErrorDTO(row.line(), row.request().cpf(), message));
+            }
+        }
+
+        private UserImportResultDTO toResult() {
+            return new UserImportResultDTO(imported, failed, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ride.service;
+
+import com.ride.domain.User;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.event.UserRegisteredEvent;
+import com.ride.dto.user.UserRequestDTO;
+import com.ride.repository.UserRepository;
+import com.ride.repository.WalletRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Registration write path shared by every role. The user, its role and its wallet
+ * are written in one flush and one commit round trip; known CPFs and emails are
+ * rejected by the {@code uk_users_cpf}/{@code uk_users_email} constraints, whose
+ * violations are translated into the same messages a lookup would give.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserRegistrationService {
+
+    private static final String CPF_CONSTRAINT = "uk_users_cpf";
+    private static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+    private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+
+    @Value("${wallet.company.shard-count:8}")
+    private int companyWalletShardCount;
+
+    public User register(UserRequestDTO dto, UserRole role) {
+        User user = newUser(dto, role, passwordHashingService.encode(dto.password()));
+
+        try {
+            return transactionTemplate.execute(status -> {
+                User savedUser = userRepository.save(user);
+                walletRepository.save(newWallet(savedUser.getId(), walletTypeFor(role)));
+                recordRegistered(savedUser, role);
+                userRepository.flush();
+                return savedUser;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, user);
+        }
+    }
+
+    public User newUser(UserRequestDTO dto, UserRole role, String passwordHash) {
+        User user = new User();
+        user.setName(dto.name());
+        user.setEmail(dto.email() == null || dto.email().isBlank() ? null : dto.email());
+        user.setCpf(dto.cpf());
+        user.setPasswordHash(passwordHash);
+        user.setImageUrl(dto.imageUrl());
+        user.setBalance(BigDecimal.ZERO);
+        user.setPhoneNumber(null);
+        user.setRoles(new HashSet<>(Set.of(role)));
+        user.setStatus(initialStatusFor(role));
+        return user;
+    }
+
+    public Wallet newWallet(UUID userId, WalletType type) {
+        return Wallet.builder()
+                .userId(userId)
+                .type(type)
+                .balance(BigDecimal.ZERO)
+                .shardCount(type == WalletType.COMPANY ? companyWalletShardCount : 1)
+                .build();
+    }
+
+    public void recordRegistered(User user, UserRole role) {
+        outboxService.recordUserEvent(user.getId(),
+                new UserRegisteredEvent(user.getId(), role, user.getStatus()));
+    }
+
+    public static WalletType walletTypeFor(UserRole role) {
+        return switch (role) {
+            case PASSENGER -> WalletType.PASSENGER;
+            case DRIVER -> WalletType.DRIVER;
+            case INFLUENCER -> WalletType.INFLUENCER;
+            case ADMIN -> WalletType.COMPANY;
+        };
+    }
+
+    public static UserStatus initialStatusFor(UserRole role) {
+        return role == UserRole.DRIVER ? UserStatus.PENDING_APPROVAL : UserStatus.ACTIVE;
+    }
+
+    private RuntimeException translate(DataIntegrityViolationException e, User user) {
+        String constraint = constraintName(e);
+        if (CPF_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new IllegalArgumentException("User already exists with CPF: " + user.getCpf());
+        }
+        if (EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new IllegalArgumentException("User already exists with email: " + user.getEmail());
+        }
+        log.warn("Registration rejected by constraint {}", constraint);
+        return e;
+    }
+
+    private static String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
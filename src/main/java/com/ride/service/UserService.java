@@ -3,19 +3,31 @@ package com.ride.service;
 import com.ride.config.AuthenticatedUserUtils;
 import com.ride.domain.User;
 import com.ride.domain.enums.UserStatus;
+import com.ride.dto.event.UserStatusChangedEvent;
 import com.ride.dto.user.UserGetResponseDTO;
+import com.ride.dto.user.UserPageDTO;
 import com.ride.dto.user.UserPhoneNumberRequestDTO;
 import com.ride.dto.user.UserResponseDTO;
+import com.ride.dto.user.UserSummaryDTO;
 import com.ride.dto.user.UserUpdateDTO;
 import com.ride.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,20 +35,44 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final AuthenticatedUserUtils authUtils;
+    private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public UserPageDTO findPage(UUID cursor, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<UserSummaryDTO> users = cursor == null
+                ? userRepository.findSummaries(page)
+                : userRepository.findSummariesAfter(cursor, page);
+
+        if (users.size() <= size) {
+            return new UserPageDTO(users, null);
+        }
+        List<UserSummaryDTO> items = users.subList(0, size);
+        return new UserPageDTO(List.copyOf(items), items.getLast().id());
+    }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public void exportUsers(OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try (Stream<UserSummaryDTO> users = userRepository.streamSummaries()) {
+            Iterator<UserSummaryDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserGetResponseDTO findUser() {
-        User user = authUtils.getUser();
-        return new UserGetResponseDTO(
-                user.getName(),
-                user.getEmail(),
-                user.getPhoneNumber()
-        );
+        return UserGetResponseDTO.from(authUtils.getUserSnapshot());
     }
 
     @Transactional
@@ -46,6 +82,7 @@ public class UserService {
 
         user.setPhoneNumber(phoneNumber.phoneNumber());
         userRepository.save(user);
+        authUtils.evict(user);
     }
 
     @Transactional
@@ -58,7 +95,8 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(currentUser);
-        return new UserResponseDTO(updatedUser.getId(), updatedUser.getName(), updatedUser.getEmail());
+        authUtils.evict(updatedUser);
+        return UserResponseDTO.from(updatedUser);
     }
 
     @Transactional
@@ -66,6 +104,11 @@ public class UserService {
         User user = authUtils.getUser();
         user.setStatus(status);
         userRepository.save(user);
+        authUtils.evict(user);
+        UserStatusChangedEvent event = new UserStatusChangedEvent(user.getId(), status);
+        outboxService.recordUserEvent(user.getId(), event);
+        // Local listeners act after commit, e.g. closing the location streams of a driver
+        applicationEventPublisher.publishEvent(event);
         log.info("User status updated to {} for user {}", status, user.getCpf());
     }
 
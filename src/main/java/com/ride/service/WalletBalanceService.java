@@ -0,0 +1,144 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.wallet.WalletBalanceDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ledger balances from snapshots. A wallet's balance is its snapshot (the sum of its
+ * {@code transactions} up to {@code last_transaction_id}) plus the rows after that id,
+ * read from {@code (wallet_id, id)} as an index-only scan. Snapshots are advanced in
+ * wallet id ranges, each only over rows older than {@code grace}, so a posting still
+ * in flight below the new snapshot id cannot be skipped. For the same reason no row
+ * after a snapshot was created more than {@code grace} before the last row it covers,
+ * so reads bound {@code created_at} by that and skip older partitions. One instance
+ * advances at a time, under {@link LedgerJobLock}.
+ */
+@Slf4j
+@Service
+public class WalletBalanceService {
+
+    static final long SNAPSHOT_LOCK_KEY = 0x7269646501L;
+
+    private static final String BALANCE_SQL = """
+            SELECT w.id, w.type,
+                   coalesce(s.balance, 0) + coalesce(d.delta, 0) AS balance,
+                   greatest(coalesce(s.last_transaction_id, 0), coalesce(d.last_id, 0)) AS as_of
+              FROM wallets w
+              LEFT JOIN wallet_balance_snapshots s ON s.wallet_id = w.id
+             CROSS JOIN LATERAL (
+                   SELECT sum(t.amount) AS delta, max(t.id) AS last_id
+                     FROM transactions t
+                    WHERE t.wallet_id = w.id AND t.id > coalesce(s.last_transaction_id, 0)
+                      AND t.created_at >= coalesce(s.last_transaction_created_at - CAST(? AS interval), '-infinity')) d
+             WHERE w.user_id = ? AND w.type = ?
+            """;
+
+    static final String RANGE_END_SQL = """
+            SELECT max(id) FROM (SELECT id FROM wallets WHERE id > ? ORDER BY id LIMIT ?) r
+            """;
+
+    private static final String ADVANCE_SQL = """
+            INSERT INTO wallet_balance_snapshots (wallet_id, balance, last_transaction_id, last_transaction_created_at, taken_at)
+            SELECT w.id, coalesce(s.balance, 0) + d.delta, c.id, c.created_at, ?
+              FROM wallets w
+              LEFT JOIN wallet_balance_snapshots s ON s.wallet_id = w.id
+             CROSS JOIN LATERAL (
+                   SELECT t.id, t.created_at
+                     FROM transactions t
+                    WHERE t.wallet_id = w.id AND t.id > coalesce(s.last_transaction_id, 0)
+                      AND t.created_at >= coalesce(s.last_transaction_created_at - CAST(? AS interval), '-infinity')
+                      AND t.created_at < ?
+                    ORDER BY t.id DESC
+                    LIMIT 1) c
+             CROSS JOIN LATERAL (
+                   SELECT sum(t.amount) AS delta
+                     FROM transactions t
+                    WHERE t.wallet_id = w.id AND t.id > coalesce(s.last_transaction_id, 0) AND t.id <= c.id
+                      AND t.created_at >= coalesce(s.last_transaction_created_at - CAST(? AS interval), '-infinity')) d
+             WHERE w.id > ? AND w.id <= ?
+                ON CONFLICT (wallet_id) DO UPDATE
+               SET balance = EXCLUDED.balance, last_transaction_id = EXCLUDED.last_transaction_id,
+                   last_transaction_created_at = EXCLUDED.last_transaction_created_at, taken_at = EXCLUDED.taken_at
+             WHERE wallet_balance_snapshots.last_transaction_id < EXCLUDED.last_transaction_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthenticatedUserUtils authenticatedUserUtils;
+    private final LedgerJobLock ledgerJobLock;
+    private final Duration grace;
+    private final int rangeSize;
+    private final Timer advanceTimer;
+    private final Counter advancedCounter;
+
+    public WalletBalanceService(JdbcTemplate jdbcTemplate,
+                                AuthenticatedUserUtils authenticatedUserUtils,
+                                LedgerJobLock ledgerJobLock,
+                                MeterRegistry meterRegistry,
+                                @Value("${ledger.snapshot.grace:PT5M}") Duration grace,
+                                @Value("${ledger.snapshot.range-size:1000}") int rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.authenticatedUserUtils = authenticatedUserUtils;
+        this.ledgerJobLock = ledgerJobLock;
+        this.grace = grace;
+        this.rangeSize = rangeSize;
+        this.advanceTimer = Timer.builder("ledger.snapshot.advance").register(meterRegistry);
+        this.advancedCounter = Counter.builder("ledger.snapshot.advanced").register(meterRegistry);
+    }
+
+    public WalletBalanceDTO findBalance(WalletType type) {
+        return findBalance(authenticatedUserUtils.getUserSnapshot().id(), type);
+    }
+
+    public WalletBalanceDTO findBalance(UUID userId, WalletType type) {
+        List<WalletBalanceDTO> balances = jdbcTemplate.query(BALANCE_SQL, (rs, row) -> new WalletBalanceDTO(
+                rs.getLong("id"),
+                WalletType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("balance"),
+                rs.getLong("as_of")), grace.toString(), userId, type.name());
+        if (balances.isEmpty()) {
+            throw new EntityNotFoundException("Wallet not found: " + type);
+        }
+        return balances.getFirst();
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval:PT1M}")
+    public void advanceSnapshots() {
+        if (!ledgerJobLock.runExclusively(SNAPSHOT_LOCK_KEY, jdbc -> advanceTimer.record(() -> advanceSnapshots(jdbc)))) {
+            log.debug("Snapshot advance skipped, another instance holds the lock");
+        }
+    }
+
+    private void advanceSnapshots(JdbcTemplate jdbc) {
+        Instant now = Instant.now();
+        Timestamp takenAt = Timestamp.from(now);
+        Timestamp cutoff = Timestamp.from(now.minus(grace));
+
+        long rangeStart = 0;
+        Long rangeEnd;
+        int advanced = 0;
+        while ((rangeEnd = jdbc.queryForObject(RANGE_END_SQL, Long.class, rangeStart, rangeSize)) != null) {
+            advanced += jdbc.update(ADVANCE_SQL, takenAt, grace.toString(), cutoff, grace.toString(), rangeStart, rangeEnd);
+            rangeStart = rangeEnd;
+        }
+        advancedCounter.increment(advanced);
+        if (advanced > 0) {
+            log.debug("Advanced {} wallet balance snapshots", advanced);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ride.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Checks wallets against the transaction log a few id ranges per run, resuming where
+ * the previous run stopped and wrapping around at the end. For each wallet the stored
+ * balance (row plus shards) must equal the ledger balance (snapshot plus later rows),
+ * and the snapshot must equal the sum of the rows it covers. That sum is incremental:
+ * a snapshot found consistent records how far it was verified, and the next run adds
+ * only the rows the snapshot has advanced over since to the verified balance. Every
+ * sum bounds {@code created_at} as {@link WalletBalanceService} does, so neither
+ * reads older partitions. Clearing a snapshot's checkpoint makes the next run verify
+ * its whole history again. Mismatches are
+ * only recorded in {@code wallet_balance_drift} and logged; nothing is corrected here.
+ * Runs on one instance at a time, under {@link LedgerJobLock}; the cursor is per
+ * instance.
+ */
+@Slf4j
+@Component
+public class WalletReconciliationJob {
+
+    static final long RECONCILIATION_LOCK_KEY = 0x7269646502L;
+
+    private static final String RECONCILE_SQL = """
+            SELECT w.id,
+                   w.balance + coalesce(sh.total, 0) AS stored_balance,
+                   coalesce(s.balance, 0) + coalesce(d.delta, 0) AS ledger_balance,
+                   s.balance AS snapshot_balance,
+                   v.total AS snapshot_expected,
+                   s.last_transaction_id,
+                   s.last_transaction_created_at,
+                   s.verified_transaction_id
+              FROM wallets w
+              LEFT JOIN wallet_balance_snapshots s ON s.wallet_id = w.id
+             CROSS JOIN LATERAL (SELECT sum(ws.balance) AS total FROM wallet_shards ws WHERE ws.wallet_id = w.id) sh
+             CROSS JOIN LATERAL (
+                   SELECT sum(t.amount) AS delta
+                     FROM transactions t
+                    WHERE t.wallet_id = w.id AND t.id > coalesce(s.last_transaction_id, 0)
+                      AND t.created_at >= coalesce(s.last_transaction_created_at - CAST(? AS interval), '-infinity')) d
+             CROSS JOIN LATERAL (
+                   SELECT coalesce(s.verified_balance, 0) + coalesce(sum(t.amount), 0) AS total
+                     FROM transactions t
+                    WHERE t.wallet_id = w.id
+                      AND t.id > coalesce(s.verified_transaction_id, 0) AND t.id <= s.last_transaction_id
+                      AND t.created_at >= coalesce(s.verified_transaction_created_at - CAST(? AS interval), '-infinity')
+                      AND t.created_at < s.last_transaction_created_at + CAST(? AS interval)) v
+             WHERE w.id > ? AND w.id <= ?
+            """;
+
+    private static final String INSERT_DRIFT_SQL = """
+            INSERT INTO wallet_balance_drift
+                   (wallet_id, stored_balance, ledger_balance, snapshot_balance, snapshot_expected, detected_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    // The snapshot may have advanced since it was read: the checkpoint only moves forward
+    private static final String VERIFIED_SQL = """
+            UPDATE wallet_balance_snapshots
+               SET verified_balance = ?, verified_transaction_id = ?, verified_transaction_created_at = ?
+             WHERE wallet_id = ? AND coalesce(verified_transaction_id, 0) < ?
+            """;
+
+    private final LedgerJobLock ledgerJobLock;
+    private final String grace;
+    private final int rangeSize;
+    private final int rangesPerRun;
+    private final Counter checkedCounter;
+    private final Counter driftCounter;
+    private long cursor;
+
+    public WalletReconciliationJob(LedgerJobLock ledgerJobLock,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ledger.snapshot.grace:PT5M}") Duration grace,
+                                   @Value("${ledger.reconciliation.range-size:1000}") int rangeSize,
+                                   @Value("${ledger.reconciliation.ranges-per-run:10}") int rangesPerRun) {
+        this.ledgerJobLock = ledgerJobLock;
+        this.grace = grace.toString();
+        this.rangeSize = rangeSize;
+        this.rangesPerRun = rangesPerRun;
+        this.checkedCounter = Counter.builder("ledger.reconciliation.checked").register(meterRegistry);
+        this.driftCounter = Counter.builder("ledger.reconciliation.drift").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.reconciliation.interval:PT5M}")
+    public void reconcile() {
+        if (!ledgerJobLock.runExclusively(RECONCILIATION_LOCK_KEY, this::reconcileRanges)) {
+            log.debug("Reconciliation skipped, another instance holds the lock");
+        }
+    }
+
+    private void reconcileRanges(JdbcTemplate jdbc) {
+        for (int range = 0; range < rangesPerRun; range++) {
+            Long rangeEnd = jdbc.queryForObject(WalletBalanceService.RANGE_END_SQL, Long.class, cursor, rangeSize);
+            if (rangeEnd == null) {
+                cursor = 0;
+                return;
+            }
+            reconcileRange(jdbc, cursor, rangeEnd);
+            cursor = rangeEnd;
+        }
+    }
+
+    private void reconcileRange(JdbcTemplate jdbc, long rangeStart, long rangeEnd) {
+        List<Check> checks = jdbc.query(RECONCILE_SQL, (rs, row) -> {
+            checkedCounter.increment();
+            Timestamp lastCreatedAt = rs.getTimestamp("last_transaction_created_at");
+            return new Check(rs.getLong("id"), rs.getBigDecimal("stored_balance"), rs.getBigDecimal("ledger_balance"),
+                    rs.getBigDecimal("snapshot_balance"), rs.getBigDecimal("snapshot_expected"),
+                    rs.getLong("last_transaction_id"), lastCreatedAt, rs.getLong("verified_transaction_id"));
+        }, grace, grace, grace, rangeStart, rangeEnd);
+
+        List<Check> verified = checks.stream().filter(Check::advancesCheckpoint).toList();
+        if (!verified.isEmpty()) {
+            jdbc.batchUpdate(VERIFIED_SQL, verified, verified.size(), (ps, check) -> {
+                ps.setBigDecimal(1, check.snapshotBalance());
+                ps.setLong(2, check.lastTransactionId());
+                ps.setTimestamp(3, check.lastTransactionCreatedAt());
+                ps.setLong(4, check.walletId());
+                ps.setLong(5, check.lastTransactionId());
+            });
+        }
+
+        List<Check> drifts = checks.stream().filter(Check::drifted).toList();
+        if (drifts.isEmpty()) {
+            return;
+        }
+        Timestamp detectedAt = Timestamp.from(Instant.now());
+        jdbc.batchUpdate(INSERT_DRIFT_SQL, drifts, drifts.size(), (ps, drift) -> {
+            ps.setLong(1, drift.walletId());
+            ps.setBigDecimal(2, drift.storedBalance());
+            ps.setBigDecimal(3, drift.ledgerBalance());
+            ps.setBigDecimal(4, drift.snapshotBalance());
+            ps.setBigDecimal(5, drift.snapshotExpected());
+            ps.setTimestamp(6, detectedAt);
+        });
+        driftCounter.increment(drifts.size());
+        for (Check drift : drifts) {
+            log.warn("Wallet {} drifted: stored {}, ledger {}, snapshot {} (expected {})", drift.walletId(),
+                    drift.storedBalance(), drift.ledgerBalance(), drift.snapshotBalance(), drift.snapshotExpected());
+        }
+    }
+
+    private record Check(long walletId, BigDecimal storedBalance, BigDecimal ledgerBalance,
+                         BigDecimal snapshotBalance, BigDecimal snapshotExpected,
+                         long lastTransactionId, Timestamp lastTransactionCreatedAt, long verifiedTransactionId) {
+
+        boolean snapshotConsistent() {
+            return snapshotBalance == null || snapshotBalance.compareTo(snapshotExpected) == 0;
+        }
+
+        boolean drifted() {
+            return storedBalance.compareTo(ledgerBalance) != 0 || !snapshotConsistent();
+        }
+
+        // A drifted snapshot keeps its checkpoint, so it is reported again on every run
+        boolean advancesCheckpoint() {
+            return snapshotBalance != null && snapshotConsistent() && lastTransactionId > verifiedTransactionId;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.TransactionType;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.wallet.WalletEarningsDTO;
+import com.ride.dto.wallet.WalletEarningsPeriodDTO;
+import com.ride.repository.WalletRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-wallet daily and monthly totals by transaction type. Postings add to them in
+ * the posting transaction (see {@link LedgerService}), one upsert per wallet and type,
+ * so earnings summaries read a few rollup rows instead of scanning
+ * {@code transactions}. Sharded wallets spread their rows like {@link WalletShardService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletRollupService {
+
+    private static final String UPSERT_DAILY_SQL = """
+            INSERT INTO wallet_daily_rollups AS r (wallet_id, day, type, shard_index, credits, debits, transaction_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (wallet_id, day, type, shard_index)
+            DO UPDATE SET credits = r.credits + EXCLUDED.credits,
+                          debits = r.debits + EXCLUDED.debits,
+                          transaction_count = r.transaction_count + EXCLUDED.transaction_count
+            """;
+
+    private static final String UPSERT_MONTHLY_SQL = """
+            INSERT INTO wallet_monthly_rollups AS r (wallet_id, month, type, shard_index, credits, debits, transaction_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (wallet_id, month, type, shard_index)
+            DO UPDATE SET credits = r.credits + EXCLUDED.credits,
+                          debits = r.debits + EXCLUDED.debits,
+                          transaction_count = r.transaction_count + EXCLUDED.transaction_count
+            """;
+
+    // Earned: ride payments and commission transfers received; refunded: refunds paid out
+    private static final String DAILY_EARNINGS_SQL = """
+            SELECT day AS period,
+                   coalesce(sum(credits) FILTER (WHERE type IN ('PAYMENT', 'TRANSFER')), 0) AS earned,
+                   coalesce(sum(debits) FILTER (WHERE type = 'REFUND'), 0) AS refunded,
+                   sum(credits) - sum(debits) AS net,
+                   sum(transaction_count) AS transaction_count
+              FROM wallet_daily_rollups
+             WHERE wallet_id = ? AND day >= ? AND day < ?
+             GROUP BY day
+             ORDER BY day
+            """;
+
+    private static final String MONTHLY_EARNINGS_SQL = """
+            SELECT month AS period,
+                   coalesce(sum(credits) FILTER (WHERE type IN ('PAYMENT', 'TRANSFER')), 0) AS earned,
+                   coalesce(sum(debits) FILTER (WHERE type = 'REFUND'), 0) AS refunded,
+                   sum(credits) - sum(debits) AS net,
+                   sum(transaction_count) AS transaction_count
+              FROM wallet_monthly_rollups
+             WHERE wallet_id = ? AND month >= ? AND month < ?
+             GROUP BY month
+             ORDER BY month
+            """;
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::walletId)
+            .thenComparing(RollupKey::type);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletShardService walletShardService;
+    private final WalletRepository walletRepository;
+    private final AuthenticatedUserUtils authUtils;
+
+    /**
+     * Adds the entries, all posted at {@code postedAt}, to the rollups. Must run in the
+     * posting transaction. Rows are upserted in wallet and type order, like the
+     * balance updates, so concurrent postings lock them in the same order.
+     */
+    public void record(List<RollupEntry> entries, LocalDateTime postedAt) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, Totals> totals = new TreeMap<>(KEY_ORDER);
+        for (RollupEntry entry : entries) {
+            totals.merge(new RollupKey(entry.walletId(), entry.type()), Totals.of(entry.amount()), Totals::add);
+        }
+
+        Date day = Date.valueOf(postedAt.toLocalDate());
+        Date month = Date.valueOf(postedAt.toLocalDate().withDayOfMonth(1));
+        List<Object[]> dailyArgs = new ArrayList<>(totals.size());
+        List<Object[]> monthlyArgs = new ArrayList<>(totals.size());
+        for (Map.Entry<RollupKey, Totals> entry : totals.entrySet()) {
+            Long walletId = entry.getKey().walletId();
+            int shardIndex = ThreadLocalRandom.current().nextInt(walletShardService.shardCount(walletId));
+            Totals total = entry.getValue();
+            dailyArgs.add(new Object[]{walletId, day, entry.getKey().type().name(), shardIndex,
+                    total.credits(), total.debits(), total.count()});
+            monthlyArgs.add(new Object[]{walletId, month, entry.getKey().type().name(), shardIndex,
+                    total.credits(), total.debits(), total.count()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_SQL, dailyArgs);
+        jdbcTemplate.batchUpdate(UPSERT_MONTHLY_SQL, monthlyArgs);
+    }
+
+    /**
+     * Earnings of the authenticated user's wallet per day or month in {@code [from, to)}.
+     * Monthly bounds are widened to whole months. Without bounds, the last 30 days or
+     * the last 12 months including the current one.
+     */
+    public WalletEarningsDTO findEarnings(WalletType type, EarningsGranularity granularity, LocalDate from, LocalDate to) {
+        Long walletId = walletRepository.findByUserIdAndType(authUtils.getUserSnapshot().id(), type)
+                .map(Wallet::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Wallet not found: " + type));
+        return findEarnings(walletId, type, granularity, from, to);
+    }
+
+    WalletEarningsDTO findEarnings(Long walletId, WalletType type, EarningsGranularity granularity,
+                                   LocalDate from, LocalDate to) {
+        LocalDate end;
+        LocalDate start;
+        String sql;
+        if (granularity == EarningsGranularity.DAY) {
+            end = to == null ? LocalDate.now().plusDays(1) : to;
+            start = from == null ? end.minusDays(30) : from;
+            sql = DAILY_EARNINGS_SQL;
+        } else {
+            end = (to == null ? LocalDate.now().plusMonths(1) : to.plusMonths(1).minusDays(1)).withDayOfMonth(1);
+            start = (from == null ? end.minusMonths(12) : from).withDayOfMonth(1);
+            sql = MONTHLY_EARNINGS_SQL;
+        }
+        if (!start.isBefore(end) || granularity.unit.between(start, end) > granularity.maxPeriods) {
+            throw new IllegalArgumentException("Earnings range must cover 1 to " + granularity.maxPeriods + " "
+                    + granularity.name().toLowerCase(Locale.ROOT) + "s");
+        }
+
+        List<WalletEarningsPeriodDTO> periods = jdbcTemplate.query(sql, (rs, row) -> new WalletEarningsPeriodDTO(
+                rs.getDate("period").toLocalDate(),
+                rs.getBigDecimal("earned"),
+                rs.getBigDecimal("refunded"),
+                rs.getBigDecimal("net"),
+                rs.getLong("transaction_count")), walletId, Date.valueOf(start), Date.valueOf(end));
+
+        BigDecimal totalEarned = periods.stream().map(WalletEarningsPeriodDTO::earned).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalNet = periods.stream().map(WalletEarningsPeriodDTO::net).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new WalletEarningsDTO(walletId, type, granularity.name().toLowerCase(Locale.ROOT), start, end,
+                totalEarned, totalNet, periods);
+    }
+
+    public enum EarningsGranularity {
+        DAY(ChronoUnit.DAYS, 366), MONTH(ChronoUnit.MONTHS, 120);
+
+        private final ChronoUnit unit;
+        private final int maxPeriods;
+
+        EarningsGranularity(ChronoUnit unit, int maxPeriods) {
+            this.unit = unit;
+            this.maxPeriods = maxPeriods;
+        }
+
+        public static EarningsGranularity parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported earnings granularity: " + value);
+            }
+        }
+    }
+
+    /**
+     * One posted leg: credits are positive, debits negative.
+     */
+    public record RollupEntry(Long walletId, TransactionType type, BigDecimal amount) {
+    }
+
+    private record RollupKey(Long walletId, TransactionType type) {
+    }
+
+    private record Totals(BigDecimal credits, BigDecimal debits, long count) {
+
+        static Totals of(BigDecimal amount) {
+            return amount.signum() >= 0
+                    ? new Totals(amount, BigDecimal.ZERO, 1)
+                    : new Totals(BigDecimal.ZERO, amount.negate(), 1);
+        }
+
+        Totals add(Totals other) {
+            return new Totals(credits.add(other.credits), debits.add(other.debits), count + other.count);
+        }
+    }
+}
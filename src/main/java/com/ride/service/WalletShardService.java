@@ -0,0 +1,105 @@
+package com.ride.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hot wallets (the COMPANY wallet) keep their credits spread over {@code shard_count}
+ * rows in {@code wallet_shards}, so concurrent commissions don't queue on one row
+ * lock. The logical balance is {@code wallets.balance} plus the shard rows; a
+ * background job folds the shards back into the base row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletShardService {
+
+    private static final String CREDIT_SHARD_SQL = """
+            INSERT INTO wallet_shards (wallet_id, shard_index, balance)
+            VALUES (?, ?, ?)
+            ON CONFLICT (wallet_id, shard_index)
+            DO UPDATE SET balance = wallet_shards.balance + EXCLUDED.balance
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public int shardCount(Long walletId) {
+        Integer cached = shardCounts.get(walletId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Integer> counts = jdbcTemplate.queryForList(
+                "SELECT shard_count FROM wallets WHERE id = ?", Integer.class, walletId);
+        if (counts.isEmpty()) {
+            return 1;
+        }
+        int count = Math.max(1, counts.getFirst());
+        shardCounts.put(walletId, count);
+        return count;
+    }
+
+    public void credit(Map<Long, BigDecimal> credits) {
+        List<Object[]> args = credits.entrySet().stream()
+                .map(entry -> new Object[]{
+                        entry.getKey(),
+                        ThreadLocalRandom.current().nextInt(shardCount(entry.getKey())),
+                        entry.getValue()})
+                .toList();
+        jdbcTemplate.batchUpdate(CREDIT_SHARD_SQL, args);
+    }
+
+    @Transactional
+    public BigDecimal compact(Long walletId) {
+        // Postings lock wallets rows before shard rows; taking them in the same order
+        // keeps a compaction from deadlocking against a posting to the same wallet. The
+        // lock is the one a balance UPDATE takes, so the KEY SHARE locks of the postings'
+        // foreign key checks don't wait on it.
+        if (jdbcTemplate.queryForList("SELECT id FROM wallets WHERE id = ? FOR NO KEY UPDATE", Long.class, walletId).isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        List<Map<String, Object>> shards = jdbcTemplate.queryForList(
+                "SELECT id, balance FROM wallet_shards WHERE wallet_id = ? AND balance <> 0", walletId);
+        if (shards.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        // Subtract exactly what was read, so credits that land in between stay in their shard.
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map<String, Object> shard : shards) {
+            BigDecimal amount = (BigDecimal) shard.get("balance");
+            jdbcTemplate.update("UPDATE wallet_shards SET balance = balance - ? WHERE id = ?", amount, shard.get("id"));
+            total = total.add(amount);
+        }
+        jdbcTemplate.update("UPDATE wallets SET balance = balance + ?, version = version + 1 WHERE id = ?", total, walletId);
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.shard.compaction-interval:PT30S}")
+    public void compactAll() {
+        List<Long> walletIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT wallet_id FROM wallet_shards WHERE balance <> 0", Long.class);
+
+        for (Long walletId : walletIds) {
+            try {
+                BigDecimal moved = transactionTemplate.execute(status -> compact(walletId));
+                log.debug("Compacted {} from shards into wallet {}", moved, walletId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to compact shards of wallet {}", walletId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ride.service;
+
+import com.ride.config.AuthenticatedUserUtils;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.wallet.WalletTransactionDTO;
+import com.ride.dto.wallet.WalletTransactionPageDTO;
+import com.ride.exception.ServiceOverloadedException;
+import com.ride.repository.TransactionRepository;
+import com.ride.repository.WalletRepository;
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Transaction history of the authenticated user's wallets. Pages walk
+ * {@code (created_at, id)} backwards from an opaque cursor, and statements stream
+ * oldest first from a forward-only cursor, so neither depends on how long the
+ * history is. Both read only columns of {@code idx_transactions_wallet_history}.
+ * A statement holds a database connection while it streams, so at most
+ * {@code max-concurrent} run at once; further exports are turned away with a 503.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class WalletTransactionService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final LocalDateTime STATEMENT_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final byte[] CSV_HEADER = "id,created_at,type,amount,reason,reference_type,reference_id\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final AuthenticatedUserUtils authUtils;
+    private final ObjectMapper objectMapper;
+    private final Semaphore exportSlots;
+    private final Counter rejectedExportsCounter;
+
+    public WalletTransactionService(TransactionRepository transactionRepository,
+                                    WalletRepository walletRepository,
+                                    AuthenticatedUserUtils authUtils,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${wallet.export.max-concurrent:8}") int maxConcurrentExports) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.authUtils = authUtils;
+        this.objectMapper = objectMapper;
+        this.exportSlots = new Semaphore(maxConcurrentExports);
+        this.rejectedExportsCounter = Counter.builder("wallet.export.rejected").register(meterRegistry);
+    }
+
+    /**
+     * Resolves the authenticated user's wallet. Exports call this on the request
+     * thread, since the response body is written without the security context.
+     */
+    public Long findWalletId(WalletType type) {
+        return walletRepository.findByUserIdAndType(authUtils.getUserSnapshot().id(), type)
+                .map(Wallet::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Wallet not found: " + type));
+    }
+
+    public WalletTransactionPageDTO findPage(WalletType type, String cursor, int limit) {
+        return findPage(findWalletId(type), cursor, limit);
+    }
+
+    WalletTransactionPageDTO findPage(Long walletId, String cursor, int limit) {
+        int size = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<WalletTransactionDTO> transactions;
+        if (cursor == null) {
+            transactions = transactionRepository.findHistory(walletId, page);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            transactions = transactionRepository.findHistoryBefore(walletId, position.createdAt(), position.id(), page);
+        }
+
+        if (transactions.size() <= size) {
+            return new WalletTransactionPageDTO(transactions, null);
+        }
+        List<WalletTransactionDTO> items = transactions.subList(0, size);
+        WalletTransactionDTO last = items.getLast();
+        return new WalletTransactionPageDTO(List.copyOf(items), new Cursor(last.createdAt(), last.id()).encode());
+    }
+
+    /**
+     * Takes an export slot on the request thread, so a 503 goes out before the response
+     * starts. The caller closes it once the statement is written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExportSlot acquireExportSlot() {
+        if (!exportSlots.tryAcquire()) {
+            rejectedExportsCounter.increment();
+            throw new ServiceOverloadedException("Too many concurrent statement exports, try again later");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                exportSlots.release();
+            }
+        };
+    }
+
+    /**
+     * Writes the wallet's transactions created in {@code [from, to)} oldest first. Open
+     * bounds default to the whole history up to now.
+     */
+    public void exportStatement(Long walletId, StatementFormat format, LocalDateTime from, LocalDateTime to,
+                                OutputStream outputStream) throws IOException {
+        LocalDateTime start = from == null ? STATEMENT_START : from;
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        if (format == StatementFormat.CSV) {
+            out.write(CSV_HEADER);
+        }
+        try (Stream<WalletTransactionDTO> transactions = transactionRepository.streamStatement(walletId, start, end)) {
+            Iterator<WalletTransactionDTO> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                WalletTransactionDTO transaction = iterator.next();
+                if (format == StatementFormat.CSV) {
+                    out.write(csvLine(transaction).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(transaction));
+                    out.write('\n');
+                }
+            }
+        }
+        out.flush();
+    }
+
+    static String csvLine(WalletTransactionDTO transaction) {
+        return transaction.id() + "," + transaction.createdAt() + "," + transaction.type() + ","
+                + transaction.amount().toPlainString() + "," + csvField(transaction.reason()) + ","
+                + csvField(transaction.referenceType()) + ","
+                + (transaction.referenceId() == null ? "" : transaction.referenceId()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public interface ExportSlot extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public enum StatementFormat {
+        CSV, NDJSON;
+
+        public static StatementFormat parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported statement format: " + value);
+            }
+        }
+    }
+
+    // Opaque to clients: base64url of "<created_at>|<id>" of the last row on the page
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
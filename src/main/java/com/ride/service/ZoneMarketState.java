@@ -0,0 +1,81 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.service.DriverLocationIndex.DriverPosition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-zone supply and demand, maintained incrementally as events happen so that a
+ * quote only reads a few counters. Supply is the number of AVAILABLE drivers, fed
+ * by {@link DriverLocationIndex} change callbacks. Demand is the number of open
+ * ride requests plus a sliding-window count of recent ones.
+ */
+@Component
+public class ZoneMarketState implements DriverLocationIndex.PositionListener {
+
+    private final ConcurrentHashMap<Long, ZoneCounters> zones = new ConcurrentHashMap<>();
+    private final double zoneSizeDegrees;
+    private final Duration demandWindow;
+    private final int demandBuckets;
+
+    public ZoneMarketState(DriverLocationIndex driverLocationIndex,
+                           @Value("${pricing.zone-size-degrees:0.05}") double zoneSizeDegrees,
+                           @Value("${pricing.demand-window:PT5M}") Duration demandWindow,
+                           @Value("${pricing.demand-buckets:30}") int demandBuckets) {
+        this.zoneSizeDegrees = zoneSizeDegrees;
+        this.demandWindow = demandWindow;
+        this.demandBuckets = demandBuckets;
+        driverLocationIndex.addListener(this);
+    }
+
+    @Override
+    public void onChange(DriverPosition previous, DriverPosition next) {
+        if (previous != null && previous.availability() == DriverAvailability.AVAILABLE) {
+            zone(previous.latitude(), previous.longitude()).availableDrivers.decrement();
+        }
+        if (next != null && next.availability() == DriverAvailability.AVAILABLE) {
+            zone(next.latitude(), next.longitude()).availableDrivers.increment();
+        }
+    }
+
+    public void requestOpened(double latitude, double longitude) {
+        ZoneCounters zone = zone(latitude, longitude);
+        zone.recentRequests.increment();
+        zone.openRequests.increment();
+    }
+
+    public void requestClosed(double latitude, double longitude) {
+        zone(latitude, longitude).openRequests.decrement();
+    }
+
+    public ZoneSnapshot snapshot(double latitude, double longitude) {
+        ZoneCounters zone = zones.get(GeoUtils.zoneKey(latitude, longitude, zoneSizeDegrees));
+        if (zone == null) {
+            return new ZoneSnapshot(0, 0, 0);
+        }
+        return new ZoneSnapshot(
+                Math.max(0, zone.openRequests.sum()),
+                zone.recentRequests.sum(),
+                Math.max(0, zone.availableDrivers.sum()));
+    }
+
+    private ZoneCounters zone(double latitude, double longitude) {
+        return zones.computeIfAbsent(GeoUtils.zoneKey(latitude, longitude, zoneSizeDegrees),
+                key -> new ZoneCounters(new SlidingWindowCounter(demandWindow, demandBuckets)));
+    }
+
+    public record ZoneSnapshot(long openRequests, long recentRequests, long availableDrivers) {
+    }
+
+    private record ZoneCounters(SlidingWindowCounter recentRequests, LongAdder openRequests, LongAdder availableDrivers) {
+
+        private ZoneCounters(SlidingWindowCounter recentRequests) {
+            this(recentRequests, new LongAdder(), new LongAdder());
+        }
+    }
+}
@@ -1,3 +1,5 @@
+-- Development users; only on the default location list, never in the prod profile
+
 -- Passenger
 INSERT INTO users (id, name, email, cpf, password_hash, image_url, phone_number, created_at, status, balance)
 VALUES ('123e4567-e89b-12d3-a456-426614174000', 'Passenger User', 'passenger@example.com', '111.111.111-11', 'hash123', 'http://img.com/1', '+5511999999999', NOW(), 'ACTIVE', 0.00)
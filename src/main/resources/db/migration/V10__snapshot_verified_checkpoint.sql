@@ -0,0 +1,8 @@
+-- How far reconciliation has verified a snapshot against the transaction log: the
+-- rows up to verified_transaction_id summed to verified_balance. Each run then sums
+-- only the rows the snapshot advanced over since, instead of its whole history.
+-- NULL (new snapshots, or cleared on purpose) makes the next run verify from the start.
+
+ALTER TABLE wallet_balance_snapshots ADD COLUMN verified_balance numeric(19, 2);
+ALTER TABLE wallet_balance_snapshots ADD COLUMN verified_transaction_id bigint;
+ALTER TABLE wallet_balance_snapshots ADD COLUMN verified_transaction_created_at timestamp(6);
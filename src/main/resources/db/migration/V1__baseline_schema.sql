@@ -0,0 +1,78 @@
+-- Baseline: the schema Hibernate used to create on every boot (ddl-auto=create)
+
+CREATE SEQUENCE wallets_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id                         uuid         NOT NULL,
+    name                       varchar(255),
+    email                      varchar(255),
+    cpf                        varchar(255) NOT NULL,
+    password_hash              varchar(255),
+    image_url                  varchar(255),
+    phone_number               varchar(255),
+    cnh_image_url              varchar(255),
+    car_document_image_url     varchar(255),
+    cnh_thumbnail_url          varchar(255),
+    car_document_thumbnail_url varchar(255),
+    created_at                 timestamp(6),
+    status                     varchar(255),
+    balance                    numeric(38, 2),
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_cpf UNIQUE (cpf),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT users_status_check CHECK (status IN ('ACTIVE', 'BLOCKED', 'PENDING_APPROVAL'))
+);
+
+CREATE TABLE user_roles (
+    user_id uuid         NOT NULL,
+    role    varchar(255) NOT NULL,
+    CONSTRAINT user_roles_pkey PRIMARY KEY (user_id, role),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT user_roles_role_check CHECK (role IN ('PASSENGER', 'DRIVER', 'INFLUENCER', 'ADMIN'))
+);
+
+CREATE TABLE wallets (
+    id          bigint         NOT NULL,
+    user_id     uuid,
+    type        varchar(255)   NOT NULL,
+    balance     numeric(19, 2) NOT NULL,
+    shard_count integer        NOT NULL,
+    version     bigint,
+    created_at  timestamp(6)   NOT NULL,
+    CONSTRAINT wallets_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_wallets_user_type UNIQUE (user_id, type),
+    CONSTRAINT wallets_type_check CHECK (type IN ('PASSENGER', 'DRIVER', 'INFLUENCER', 'COMPANY'))
+);
+
+CREATE TABLE wallet_shards (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    wallet_id   bigint         NOT NULL,
+    shard_index integer        NOT NULL,
+    balance     numeric(19, 2) NOT NULL,
+    CONSTRAINT wallet_shards_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_wallet_shards_wallet_shard UNIQUE (wallet_id, shard_index)
+);
+
+CREATE TABLE transactions (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY,
+    wallet_id      bigint         NOT NULL,
+    type           varchar(255)   NOT NULL,
+    amount         numeric(19, 2) NOT NULL,
+    reason         varchar(120)   NOT NULL,
+    reference_id   bigint,
+    reference_type varchar(255),
+    created_at     timestamp(6)   NOT NULL,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id),
+    CONSTRAINT transactions_type_check CHECK (type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER', 'PAYMENT', 'REFUND'))
+);
+
+CREATE TABLE outbox_events (
+    id             bigint                      NOT NULL,
+    aggregate_type varchar(50)                 NOT NULL,
+    aggregate_id   varchar(64)                 NOT NULL,
+    event_type     varchar(100)                NOT NULL,
+    payload        jsonb                       NOT NULL,
+    created_at     timestamp(6) with time zone NOT NULL,
+    CONSTRAINT outbox_events_pkey PRIMARY KEY (id)
+);
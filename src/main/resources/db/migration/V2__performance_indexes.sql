@@ -0,0 +1,33 @@
+-- Indexes and constraints for the repository and ledger queries. Runs outside a
+-- transaction (see .sql.conf) so indexes build CONCURRENTLY and foreign keys are
+-- validated without blocking writes. users.email, users.cpf and wallets(user_id, type)
+-- are already covered by the unique constraints in V1.
+
+-- TransactionRepository.findByReferenceTypeAndReferenceId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_reference
+    ON transactions (reference_id, reference_type)
+    WHERE reference_id IS NOT NULL;
+
+-- Per-wallet history, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_created
+    ON transactions (wallet_id, created_at DESC, id DESC);
+
+-- Shard compaction only looks at shards that still hold a balance
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_wallet_shards_pending
+    ON wallet_shards (wallet_id)
+    WHERE balance <> 0;
+
+ALTER TABLE wallets
+    ADD CONSTRAINT fk_wallets_user FOREIGN KEY (user_id) REFERENCES users (id) NOT VALID;
+ALTER TABLE wallets
+    VALIDATE CONSTRAINT fk_wallets_user;
+
+ALTER TABLE wallet_shards
+    ADD CONSTRAINT fk_wallet_shards_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id) NOT VALID;
+ALTER TABLE wallet_shards
+    VALIDATE CONSTRAINT fk_wallet_shards_wallet;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id) NOT VALID;
+ALTER TABLE transactions
+    VALIDATE CONSTRAINT fk_transactions_wallet;
@@ -0,0 +1,29 @@
+-- Balance of each wallet as of a transactions.id: the current balance is the snapshot
+-- plus the rows after last_transaction_id.
+CREATE TABLE IF NOT EXISTS wallet_balance_snapshots (
+    wallet_id           bigint                      NOT NULL,
+    balance             numeric(19, 2)              NOT NULL,
+    last_transaction_id bigint                      NOT NULL,
+    taken_at            timestamp(6) with time zone NOT NULL,
+    CONSTRAINT wallet_balance_snapshots_pkey PRIMARY KEY (wallet_id),
+    CONSTRAINT fk_wallet_balance_snapshots_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id)
+);
+
+-- Mismatches found by reconciliation, kept for investigation
+CREATE TABLE IF NOT EXISTS wallet_balance_drift (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY,
+    wallet_id         bigint                      NOT NULL,
+    stored_balance    numeric(19, 2)              NOT NULL,
+    ledger_balance    numeric(19, 2)              NOT NULL,
+    snapshot_balance  numeric(19, 2),
+    snapshot_expected numeric(19, 2),
+    detected_at       timestamp(6) with time zone NOT NULL,
+    CONSTRAINT wallet_balance_drift_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_wallet_balance_drift_wallet
+    ON wallet_balance_drift (wallet_id, detected_at DESC);
+
+-- Delta since a snapshot as an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_id
+    ON transactions (wallet_id, id) INCLUDE (amount, created_at);
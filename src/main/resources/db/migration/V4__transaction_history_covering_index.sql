@@ -0,0 +1,7 @@
+-- Wallet history pages and statement exports read only these columns, so the index
+-- covers them and both run as index-only scans. Supersedes idx_transactions_wallet_created.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_history
+    ON transactions (wallet_id, created_at DESC, id DESC)
+    INCLUDE (type, amount, reason, reference_type, reference_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_transactions_wallet_created;
@@ -0,0 +1,67 @@
+-- transactions becomes range-partitioned by created_at month. Postgres requires the
+-- partition key in every unique constraint, so the primary key is (id, created_at);
+-- ids still come from one sequence and stay unique and increasing across partitions.
+-- Partitions from the oldest row to three months ahead are created here, later ones by
+-- TransactionPartitionMaintenance. The DEFAULT partition only catches rows the job
+-- did not create a partition for in time and should stay empty. Runs in a single
+-- transaction; writes to transactions are blocked while the rows are copied.
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned DROP CONSTRAINT transactions_pkey;
+ALTER TABLE transactions_unpartitioned ALTER COLUMN id DROP IDENTITY;
+DROP INDEX idx_transactions_reference;
+DROP INDEX idx_transactions_wallet_history;
+DROP INDEX idx_transactions_wallet_id;
+
+CREATE SEQUENCE transactions_id_seq;
+
+CREATE TABLE transactions (
+    id             bigint         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    wallet_id      bigint         NOT NULL,
+    type           varchar(255)   NOT NULL,
+    amount         numeric(19, 2) NOT NULL,
+    reason         varchar(120)   NOT NULL,
+    reference_id   bigint,
+    reference_type varchar(255),
+    created_at     timestamp(6)   NOT NULL,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT transactions_type_check CHECK (type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER', 'PAYMENT', 'REFUND')),
+    CONSTRAINT fk_transactions_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+DO $$
+DECLARE
+    partition_start timestamp := date_trunc('month', coalesce((SELECT min(created_at) FROM transactions_unpartitioned), localtimestamp));
+BEGIN
+    WHILE partition_start <= date_trunc('month', localtimestamp) + interval '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_' || to_char(partition_start, 'YYYY_MM'), partition_start, partition_start + interval '1 month');
+        partition_start := partition_start + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO transactions (id, wallet_id, type, amount, reason, reference_id, reference_type, created_at)
+SELECT id, wallet_id, type, amount, reason, reference_id, reference_type, created_at
+  FROM transactions_unpartitioned;
+
+SELECT setval('transactions_id_seq', coalesce(max(id), 0) + 1, false) FROM transactions;
+
+DROP TABLE transactions_unpartitioned;
+
+-- Created on the parent, so every current and future partition gets them
+CREATE INDEX idx_transactions_reference
+    ON transactions (reference_id, reference_type)
+    WHERE reference_id IS NOT NULL;
+
+CREATE INDEX idx_transactions_wallet_history
+    ON transactions (wallet_id, created_at DESC, id DESC)
+    INCLUDE (type, amount, reason, reference_type, reference_id);
+
+CREATE INDEX idx_transactions_wallet_id
+    ON transactions (wallet_id, id) INCLUDE (amount, created_at);
+
+ANALYZE transactions;
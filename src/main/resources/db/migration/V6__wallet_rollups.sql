@@ -0,0 +1,41 @@
+-- Per-wallet totals by day and by month and transaction type, kept up to date by
+-- LedgerService in the posting transaction. Credits and debits are both stored as
+-- positive amounts. Sharded wallets spread their rows over shard_index like
+-- wallet_shards, so hot wallets don't serialize on one rollup row; readers sum them.
+
+CREATE TABLE wallet_daily_rollups (
+    wallet_id         bigint         NOT NULL,
+    day               date           NOT NULL,
+    type              varchar(255)   NOT NULL,
+    shard_index       integer        NOT NULL,
+    credits           numeric(19, 2) NOT NULL,
+    debits            numeric(19, 2) NOT NULL,
+    transaction_count bigint         NOT NULL,
+    CONSTRAINT wallet_daily_rollups_pkey PRIMARY KEY (wallet_id, day, type, shard_index),
+    CONSTRAINT fk_wallet_daily_rollups_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id)
+);
+
+CREATE TABLE wallet_monthly_rollups (
+    wallet_id         bigint         NOT NULL,
+    month             date           NOT NULL,
+    type              varchar(255)   NOT NULL,
+    shard_index       integer        NOT NULL,
+    credits           numeric(19, 2) NOT NULL,
+    debits            numeric(19, 2) NOT NULL,
+    transaction_count bigint         NOT NULL,
+    CONSTRAINT wallet_monthly_rollups_pkey PRIMARY KEY (wallet_id, month, type, shard_index),
+    CONSTRAINT fk_wallet_monthly_rollups_wallet FOREIGN KEY (wallet_id) REFERENCES wallets (id)
+);
+
+INSERT INTO wallet_daily_rollups (wallet_id, day, type, shard_index, credits, debits, transaction_count)
+SELECT wallet_id, created_at::date, type, 0,
+       coalesce(sum(amount) FILTER (WHERE amount > 0), 0),
+       coalesce(-sum(amount) FILTER (WHERE amount < 0), 0),
+       count(*)
+  FROM transactions
+ GROUP BY wallet_id, created_at::date, type;
+
+INSERT INTO wallet_monthly_rollups (wallet_id, month, type, shard_index, credits, debits, transaction_count)
+SELECT wallet_id, date_trunc('month', day)::date, type, 0, sum(credits), sum(debits), sum(transaction_count)
+  FROM wallet_daily_rollups
+ GROUP BY wallet_id, date_trunc('month', day)::date, type;
@@ -0,0 +1,38 @@
+-- Deposits and withdrawals move money across the system boundary. Their second leg is
+-- posted against this system wallet, so every posting balances and the sum of all
+-- transactions is zero. Its balance goes negative as money comes in. All of its deltas
+-- go through wallet_shards, so it is not a hot row.
+
+ALTER TABLE wallets DROP CONSTRAINT wallets_type_check;
+ALTER TABLE wallets
+    ADD CONSTRAINT wallets_type_check CHECK (type IN ('PASSENGER', 'DRIVER', 'INFLUENCER', 'COMPANY', 'CLEARING'));
+
+INSERT INTO wallets (id, user_id, type, balance, shard_count, version, created_at)
+SELECT nextval('wallets_seq'), NULL, 'CLEARING', 0, 8, 0, localtimestamp
+ WHERE NOT EXISTS (SELECT 1 FROM wallets WHERE type = 'CLEARING');
+
+-- Contra legs for the deposits and withdrawals posted before this migration
+INSERT INTO transactions (wallet_id, type, amount, reason, reference_id, reference_type, created_at)
+SELECT c.id, t.type, -t.amount, t.reason, t.reference_id, t.reference_type, t.created_at
+  FROM transactions t
+ CROSS JOIN (SELECT id FROM wallets WHERE type = 'CLEARING') c
+ WHERE t.type IN ('DEPOSIT', 'WITHDRAWAL');
+
+UPDATE wallets
+   SET balance = (SELECT coalesce(sum(t.amount), 0) FROM transactions t WHERE t.wallet_id = wallets.id)
+ WHERE type = 'CLEARING';
+
+INSERT INTO wallet_daily_rollups (wallet_id, day, type, shard_index, credits, debits, transaction_count)
+SELECT t.wallet_id, t.created_at::date, t.type, 0,
+       coalesce(sum(t.amount) FILTER (WHERE t.amount > 0), 0),
+       coalesce(-sum(t.amount) FILTER (WHERE t.amount < 0), 0),
+       count(*)
+  FROM transactions t
+  JOIN wallets w ON w.id = t.wallet_id AND w.type = 'CLEARING'
+ GROUP BY t.wallet_id, t.created_at::date, t.type;
+
+INSERT INTO wallet_monthly_rollups (wallet_id, month, type, shard_index, credits, debits, transaction_count)
+SELECT r.wallet_id, date_trunc('month', r.day)::date, r.type, 0, sum(r.credits), sum(r.debits), sum(r.transaction_count)
+  FROM wallet_daily_rollups r
+  JOIN wallets w ON w.id = r.wallet_id AND w.type = 'CLEARING'
+ GROUP BY r.wallet_id, date_trunc('month', r.day)::date, r.type;
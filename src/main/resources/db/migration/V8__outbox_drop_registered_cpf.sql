@@ -0,0 +1,7 @@
+-- UserRegisteredEvent no longer carries the CPF; consumers resolve the user by id.
+-- Strip it from events still waiting to be relayed.
+
+UPDATE outbox_events
+   SET payload = payload - 'cpf'
+ WHERE event_type = 'UserRegisteredEvent'
+   AND payload ? 'cpf';
@@ -0,0 +1,15 @@
+-- created_at of the last transaction a snapshot covers. Rows after the snapshot are
+-- created no earlier than this minus the snapshot grace, so balance and reconciliation
+-- queries can bound created_at and skip older transactions partitions.
+
+ALTER TABLE wallet_balance_snapshots ADD COLUMN last_transaction_created_at timestamp(6);
+
+UPDATE wallet_balance_snapshots s
+   SET last_transaction_created_at = t.created_at
+  FROM transactions t
+ WHERE t.id = s.last_transaction_id;
+
+-- A snapshot whose covered row is gone can't be bounded; the next advance rebuilds it
+DELETE FROM wallet_balance_snapshots WHERE last_transaction_created_at IS NULL;
+
+ALTER TABLE wallet_balance_snapshots ALTER COLUMN last_transaction_created_at SET NOT NULL;
@@ -1,13 +1,26 @@
 package com.ride;
 
+import com.ride.config.VirtualThreadPinningMonitor;
+import com.ride.support.PostgresIntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
 
-@SpringBootTest
-class RideApplicationTests {
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Starts the full application context with the shipped application.properties
+ * against the embedded Postgres, so a bad property value or an unmigratable schema
+ * fails here first.
+ */
+class RideApplicationTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
 
     @Test
     void contextLoads() {
+        assertNotNull(context.getBean(VirtualThreadPinningMonitor.class));
     }
 
 }
@@ -0,0 +1,151 @@
+package com.ride.config;
+
+import com.ride.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlledDataSourceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @Test
+    void closeReleasesThePermit() throws Exception {
+        AdmissionControlledDataSource dataSource = dataSource(1, 10, Duration.ofMillis(50));
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.active());
+        connection.close();
+
+        assertEquals(0, dataSource.active());
+        assertEquals(1, closed.get());
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void doubleCloseReleasesOnce() throws Exception {
+        AdmissionControlledDataSource dataSource = dataSource(2, 10, Duration.ofMillis(50));
+        Connection held = dataSource.getConnection();
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(1, dataSource.active());
+        held.close();
+        assertEquals(0, dataSource.active());
+    }
+
+    @Test
+    void failedGetConnectionReleasesThePermit() throws Exception {
+        AdmissionControlledDataSource dataSource = dataSource(1, 10, Duration.ofMillis(50));
+        failing.set(true);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, () -> dataSource.getConnection("user", "password"));
+
+        assertEquals(0, dataSource.active());
+        failing.set(false);
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void timeoutIsRejectedWith503() throws Exception {
+        AdmissionControlledDataSource dataSource = dataSource(1, 10, Duration.ofMillis(50));
+        Connection held = dataSource.getConnection();
+
+        ServiceOverloadedException error = assertThrows(ServiceOverloadedException.class, dataSource::getConnection);
+
+        assertServiceUnavailable(error);
+        assertEquals(1.0, rejected("timeout"));
+        assertEquals(1, dataSource.active());
+        held.close();
+    }
+
+    @Test
+    void fullQueueIsRejectedWith503WithoutWaiting() throws Exception {
+        AdmissionControlledDataSource dataSource = dataSource(1, 1, Duration.ofSeconds(30));
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitWaiting(1);
+
+        long start = System.nanoTime();
+        ServiceOverloadedException error = assertThrows(ServiceOverloadedException.class, dataSource::getConnection);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "queue-full rejection must not wait");
+        assertServiceUnavailable(error);
+        assertEquals(1.0, rejected("queue-full"));
+
+        held.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, dataSource.active());
+    }
+
+    private AdmissionControlledDataSource dataSource(int maxConcurrent, int maxWaiting, Duration timeout) {
+        return new AdmissionControlledDataSource(target(), maxConcurrent, maxWaiting, timeout, meterRegistry);
+    }
+
+    // Only getConnection and Connection.close are exercised
+    private DataSource target() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getConnection")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (failing.get()) {
+                        throw new SQLException("pool exhausted");
+                    }
+                    return connection();
+                });
+    }
+
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        closed.incrementAndGet();
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private void awaitWaiting(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("db.admission.waiting").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "caller never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("db.admission.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void assertServiceUnavailable(ServiceOverloadedException error) {
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getClass().getAnnotation(ResponseStatus.class).value());
+    }
+}
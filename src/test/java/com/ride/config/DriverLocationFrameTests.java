@@ -0,0 +1,74 @@
+package com.ride.config;
+
+import com.ride.domain.enums.DriverAvailability;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DriverLocationFrameTests {
+
+    private static final double E7_TOLERANCE = 1e-7;
+
+    @ParameterizedTest
+    @EnumSource(DriverAvailability.class)
+    void encodedFrameDecodesToTheSameValues(DriverAvailability availability) {
+        ByteBuffer frame = DriverLocationFrame.encode(-23.5505199, -46.6333094, availability, 1_760_000_000_123L);
+
+        assertEquals(DriverLocationFrame.SIZE, frame.remaining());
+        assertTrue(DriverLocationFrame.isValid(frame, 0));
+        assertEquals(availability, DriverLocationFrame.availability(frame, 0));
+        assertEquals(-23.5505199, DriverLocationFrame.latitude(frame, 0), E7_TOLERANCE);
+        assertEquals(-46.6333094, DriverLocationFrame.longitude(frame, 0), E7_TOLERANCE);
+        assertEquals(1_760_000_000_123L, DriverLocationFrame.recordedAt(frame, 0));
+    }
+
+    @Test
+    void coordinateExtremesFitTheFixedPointFields() {
+        ByteBuffer frame = DriverLocationFrame.encode(-90, 180, DriverAvailability.AVAILABLE, 0);
+
+        assertEquals(-90, DriverLocationFrame.latitude(frame, 0), E7_TOLERANCE);
+        assertEquals(180, DriverLocationFrame.longitude(frame, 0), E7_TOLERANCE);
+    }
+
+    @Test
+    void framesAreDecodedAtTheirOffsetInABatch() {
+        ByteBuffer message = ByteBuffer.allocate(3 + 2 * DriverLocationFrame.SIZE);
+        message.position(3);
+        message.put(DriverLocationFrame.encode(1.5, 2.5, DriverAvailability.AVAILABLE, 10));
+        message.put(DriverLocationFrame.encode(-1.5, -2.5, DriverAvailability.ON_TRIP, 20));
+        message.flip().position(3);
+
+        int second = message.position() + DriverLocationFrame.SIZE;
+        assertTrue(DriverLocationFrame.isValid(message, second));
+        assertEquals(DriverAvailability.ON_TRIP, DriverLocationFrame.availability(message, second));
+        assertEquals(-1.5, DriverLocationFrame.latitude(message, second), E7_TOLERANCE);
+        assertEquals(-2.5, DriverLocationFrame.longitude(message, second), E7_TOLERANCE);
+        assertEquals(20, DriverLocationFrame.recordedAt(message, second));
+        assertEquals(3, message.position(), "Decoding must not move the buffer");
+    }
+
+    @Test
+    void unknownVersionIsInvalid() {
+        ByteBuffer frame = DriverLocationFrame.encode(0, 0, DriverAvailability.AVAILABLE, 0);
+        frame.put(0, (byte) (DriverLocationFrame.VERSION + 1));
+
+        assertFalse(DriverLocationFrame.isValid(frame, 0));
+    }
+
+    @Test
+    void availabilityOutOfRangeIsInvalid() {
+        ByteBuffer frame = DriverLocationFrame.encode(0, 0, DriverAvailability.AVAILABLE, 0);
+
+        frame.put(1, (byte) DriverAvailability.values().length);
+        assertFalse(DriverLocationFrame.isValid(frame, 0));
+
+        frame.put(1, (byte) -1);
+        assertFalse(DriverLocationFrame.isValid(frame, 0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.ride.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JWTClaimsCacheTests {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void cachedPrincipalIsReturnedUntilItsExpiry() {
+        JWTClaimsCache cache = new JWTClaimsCache(10);
+        JWTPrincipal principal = principal("a", NOW.plusSeconds(60));
+        cache.put("a", principal, NOW);
+
+        assertSame(principal, cache.get("a", NOW));
+        assertSame(principal, cache.get("a", NOW.plusSeconds(60).minusMillis(1)));
+        assertNull(cache.get("b", NOW));
+    }
+
+    @Test
+    void principalExpiresAtItsExpClaimAndIsDropped() {
+        JWTClaimsCache cache = new JWTClaimsCache(10);
+        cache.put("a", principal("a", NOW.plusSeconds(60)), NOW);
+
+        assertNull(cache.get("a", NOW.plusSeconds(60)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void principalWithoutExpiryIsNotCached() {
+        JWTClaimsCache cache = new JWTClaimsCache(10);
+        cache.put("a", principal("a", null), NOW);
+
+        assertNull(cache.get("a", NOW));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void sizeNeverExceedsTheBoundAndTheLatestExpiriesSurvive() {
+        JWTClaimsCache cache = new JWTClaimsCache(10);
+        for (int i = 1; i <= 25; i++) {
+            cache.put("t" + i, principal("t" + i, NOW.plusSeconds(i)), NOW);
+            assertTrue(cache.size() <= 10, "Size " + cache.size() + " after " + i + " puts");
+        }
+
+        assertNotNull(cache.get("t25", NOW));
+        assertNotNull(cache.get("t24", NOW));
+        assertNull(cache.get("t1", NOW), "The entry closest to expiring goes first");
+    }
+
+    @Test
+    void expiredEntriesAreEvictedBeforeLiveOnes() {
+        JWTClaimsCache cache = new JWTClaimsCache(4);
+        cache.put("live", principal("live", NOW.plusSeconds(5)), NOW);
+        for (int i = 0; i < 3; i++) {
+            cache.put("stale" + i, principal("stale" + i, NOW.minusSeconds(60)), NOW.minusSeconds(120));
+        }
+        // Every expired entry goes on overflow, not just enough of them to make room
+        Instant later = NOW.plusSeconds(4);
+        cache.put("new", principal("new", NOW.plusSeconds(100)), later);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("live", later));
+        assertNotNull(cache.get("new", later));
+    }
+
+    @Test
+    void zeroSizeDisablesTheCache() {
+        JWTClaimsCache cache = new JWTClaimsCache(0);
+        cache.put("a", principal("a", NOW.plusSeconds(60)), NOW);
+
+        assertNull(cache.get("a", NOW));
+    }
+
+    private static JWTPrincipal principal(String cpf, Instant expiresAt) {
+        return JWTPrincipal.of(cpf, List.of("DRIVER"), expiresAt);
+    }
+}
@@ -0,0 +1,135 @@
+package com.ride.config;
+
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.repository.UserRepository;
+import com.ride.support.Cpfs;
+import com.ride.support.JWTTokenProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JWTHandshakeInterceptorTests {
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final JWTTokenProvider tokenProvider = JWTTokenProviders.create(60_000, 100, new SimpleMeterRegistry());
+    private final JWTHandshakeInterceptor interceptor = new JWTHandshakeInterceptor(tokenProvider,
+            new AuthenticatedUserUtils(userRepository(), new UserSnapshotCache(Duration.ofMinutes(1), 100)));
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ws/drivers/location");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    @Test
+    void activeDriverWithBearerHeaderIsAccepted() {
+        User driver = user(UserStatus.ACTIVE, UserRole.DRIVER);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenProvider.generateJwtToken(driver));
+
+        assertTrue(handshake());
+        assertEquals(driver.getId(), attributes.get(JWTHandshakeInterceptor.DRIVER_ID_ATTRIBUTE));
+        assertTrue((Long) attributes.get(JWTHandshakeInterceptor.EXPIRES_AT_ATTRIBUTE) > System.currentTimeMillis());
+    }
+
+    @Test
+    void tokenInTheSubprotocolPairIsAccepted() {
+        User driver = user(UserStatus.ACTIVE, UserRole.DRIVER);
+        request.addHeader(WebSocketHttpHeaders.SEC_WEBSOCKET_PROTOCOL,
+                JWTHandshakeInterceptor.TOKEN_PROTOCOL + ", " + tokenProvider.generateJwtToken(driver));
+
+        assertTrue(handshake());
+        assertEquals(driver.getId(), attributes.get(JWTHandshakeInterceptor.DRIVER_ID_ATTRIBUTE));
+    }
+
+    @Test
+    void missingTokenIsUnauthorized() {
+        assertRejected(401);
+    }
+
+    @Test
+    void tokenInTheQueryStringIsIgnored() {
+        request.setQueryString("access_token=" + tokenProvider.generateJwtToken(user(UserStatus.ACTIVE, UserRole.DRIVER)));
+
+        assertRejected(401);
+    }
+
+    @Test
+    void tamperedTokenIsUnauthorized() {
+        String token = tokenProvider.generateJwtToken(user(UserStatus.ACTIVE, UserRole.DRIVER));
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token.substring(0, token.length() - 2) + "xx");
+
+        assertRejected(401);
+    }
+
+    @Test
+    void expiredTokenIsUnauthorized() {
+        JWTTokenProvider expiring = JWTTokenProviders.create(-1_000, 100, new SimpleMeterRegistry());
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + expiring.generateJwtToken(user(UserStatus.ACTIVE, UserRole.DRIVER)));
+
+        assertRejected(401);
+    }
+
+    @Test
+    void passengerIsForbidden() {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenProvider.generateJwtToken(user(UserStatus.ACTIVE, UserRole.PASSENGER)));
+
+        assertRejected(403);
+    }
+
+    @Test
+    void blockedDriverIsForbidden() {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenProvider.generateJwtToken(user(UserStatus.BLOCKED, UserRole.DRIVER)));
+
+        assertRejected(403);
+    }
+
+    private boolean handshake() {
+        return interceptor.beforeHandshake(new ServletServerHttpRequest(request), new ServletServerHttpResponse(response),
+                null, attributes);
+    }
+
+    private void assertRejected(int status) {
+        assertFalse(handshake());
+        assertEquals(status, response.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    private User user(UserStatus status, UserRole role) {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .cpf(Cpfs.random())
+                .status(status)
+                .roles(Set.of(role))
+                .build();
+        users.put(user.getCpf(), user);
+        return user;
+    }
+
+    private UserRepository userRepository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByCpf")) {
+                        return Optional.ofNullable(users.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
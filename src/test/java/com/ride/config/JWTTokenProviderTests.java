@@ -0,0 +1,123 @@
+package com.ride.config;
+
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.support.Cpfs;
+import com.ride.support.JWTTokenProviders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JWTTokenProviderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedVerificationIsServedFromTheCache() {
+        JWTTokenProvider provider = JWTTokenProviders.create(60_000, 100, meterRegistry);
+        User driver = user(UserRole.DRIVER);
+        String token = provider.generateJwtToken(driver);
+
+        JWTPrincipal first = provider.verify(token).orElseThrow();
+        JWTPrincipal second = provider.verify(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(driver.getCpf(), first.cpf());
+        assertEquals(List.of("DRIVER"), first.roles());
+        assertEquals(1, cacheCount("miss"));
+        assertEquals(1, cacheCount("hit"));
+    }
+
+    @Test
+    void cachedPrincipalIsNotServedPastItsExp() throws InterruptedException {
+        JWTTokenProvider provider = JWTTokenProviders.create(1_000, 100, meterRegistry);
+        String token = provider.generateJwtToken(user(UserRole.PASSENGER));
+        Instant expiresAt = provider.verify(token).orElseThrow().expiresAt();
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 50);
+
+        assertEquals(Optional.empty(), provider.verify(token));
+        assertEquals(2, cacheCount("miss"));
+        assertEquals(0, cacheCount("hit"));
+    }
+
+    @Test
+    void cacheHoldsAtMostItsMaximumSize() {
+        JWTTokenProvider provider = JWTTokenProviders.create(60_000, 5, meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(provider.verify(provider.generateJwtToken(user(UserRole.DRIVER))).isPresent());
+        }
+
+        JWTClaimsCache cache = (JWTClaimsCache) ReflectionTestUtils.getField(provider, "claimsCache");
+        assertTrue(cache.size() <= 5, "Cache grew to " + cache.size());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterTheOriginalWasCached() {
+        JWTTokenProvider provider = JWTTokenProviders.create(60_000, 100, meterRegistry);
+        User passenger = user(UserRole.PASSENGER);
+        String token = provider.generateJwtToken(passenger);
+        assertTrue(provider.verify(token).isPresent());
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String elevated = payload.replace("\"PASSENGER\"", "\"ADMIN\"");
+        assertNotEquals(payload, elevated);
+        String tamperedPayload = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(elevated.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+        String tamperedSignature = parts[0] + "." + parts[1] + "." + flipFirstChar(parts[2]);
+        String unsigned = parts[0] + "." + parts[1] + ".";
+
+        assertEquals(Optional.empty(), provider.verify(tamperedPayload));
+        assertEquals(Optional.empty(), provider.verify(tamperedSignature));
+        assertEquals(Optional.empty(), provider.verify(unsigned));
+        assertEquals(0, cacheCount("hit"));
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndNotCached() {
+        JWTTokenProvider provider = JWTTokenProviders.create(-60_000, 100, meterRegistry);
+        String token = provider.generateJwtToken(user(UserRole.DRIVER));
+
+        assertEquals(Optional.empty(), provider.verify(token));
+        assertEquals(Optional.empty(), provider.verify(token));
+
+        assertEquals(2, cacheCount("miss"));
+        assertEquals(0, cacheCount("hit"));
+    }
+
+    @Test
+    void blankTokenIsRejected() {
+        JWTTokenProvider provider = JWTTokenProviders.create(60_000, 100, meterRegistry);
+
+        assertEquals(Optional.empty(), provider.verify(null));
+        assertEquals(Optional.empty(), provider.verify(" "));
+        assertEquals(Optional.empty(), provider.verify("not.a.jwt"));
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.counter("auth.jwt.cache", "result", result).count();
+    }
+
+    private static User user(UserRole role) {
+        return User.builder().cpf(Cpfs.random()).roles(Set.of(role)).build();
+    }
+
+    private static String flipFirstChar(String value) {
+        return (value.charAt(0) == 'A' ? 'B' : 'A') + value.substring(1);
+    }
+}
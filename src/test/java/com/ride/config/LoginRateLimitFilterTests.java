@@ -0,0 +1,118 @@
+package com.ride.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimitFilterTests {
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final List<String> forwardedBodies = new ArrayList<>();
+    private final FilterChain chain = (request, response) -> forwardedBodies.add(body(request));
+
+    @Test
+    void ipOverItsBucketIsRejectedWithRetryAfter() throws Exception {
+        LoginRateLimitFilter filter = filter(2, 100);
+
+        assertEquals(200, login(filter, "10.0.0.1", "{\"cpf\":\"1\"}").getStatus());
+        assertEquals(200, login(filter, "10.0.0.1", "{\"cpf\":\"2\"}").getStatus());
+        MockHttpServletResponse rejected = login(filter, "10.0.0.1", "{\"cpf\":\"3\"}");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertEquals(200, login(filter, "10.0.0.2", "{\"cpf\":\"3\"}").getStatus(), "Other addresses keep their own bucket");
+        assertEquals(3, forwardedBodies.size());
+    }
+
+    @Test
+    void cpfOverItsBucketIsRejectedFromAnyAddress() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 2);
+
+        assertEquals(200, login(filter, "10.0.0.1", "{\"cpf\":\"123.456.789-09\"}").getStatus());
+        assertEquals(200, login(filter, "10.0.0.2", "{\"cpf\":\"12345678909\"}").getStatus());
+        MockHttpServletResponse rejected = login(filter, "10.0.0.3", "{\"cpf\":\"123 456 789 09\"}");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertTrue(rejected.getContentAsString().contains("Too many login attempts"));
+        assertEquals(200, login(filter, "10.0.0.3", "{\"cpf\":\"98765432100\"}").getStatus());
+        assertEquals(3, forwardedBodies.size());
+    }
+
+    @Test
+    void oversizedBodyIsRejectedBeforeTheController() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 100);
+
+        MockHttpServletResponse response = login(filter, "10.0.0.1", "{\"cpf\":\"" + "1".repeat(5000) + "\"}");
+
+        assertEquals(HttpStatus.CONTENT_TOO_LARGE.value(), response.getStatus());
+        assertTrue(forwardedBodies.isEmpty());
+    }
+
+    @Test
+    void bodyReadForTheCpfIsReplayedToTheController() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 100);
+        String body = "{\"cpf\":\"12345678909\",\"password\":\"s3cret-é\"}";
+
+        login(filter, "10.0.0.1", body);
+        login(filter, "10.0.0.1", "not json");
+
+        assertEquals(List.of(body, "not json"), forwardedBodies);
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        LoginRateLimitFilter filter = filter(1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/register");
+            request.setServletPath("/auth/register");
+            request.setContent("{\"cpf\":\"12345678909\"}".getBytes(StandardCharsets.UTF_8));
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        assertEquals(3, forwardedBodies.size());
+    }
+
+    private LoginRateLimitFilter filter(int ipCapacity, int cpfCapacity) {
+        return new LoginRateLimitFilter(
+                new TokenBucketRateLimiter(ipCapacity, PERIOD, 1000, clock::get),
+                new TokenBucketRateLimiter(cpfCapacity, PERIOD, 1000, clock::get),
+                new ObjectMapper());
+    }
+
+    private MockHttpServletResponse login(LoginRateLimitFilter filter, String remoteAddr, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String body(ServletRequest request) {
+        try {
+            return new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ride.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTests {
+
+    private static final Duration PERIOD = Duration.ofSeconds(2);
+    private static final int STRIPES = 64;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void emptyBucketReportsWaitAndRefillsOverTime() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, PERIOD, 1000, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("a"), 1);
+
+        advance(Duration.ofMillis(500));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("a"), 1);
+
+        advance(Duration.ofMillis(600));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, PERIOD, 1000, clock::get);
+        assertEquals(0, limiter.tryAcquire("a"));
+
+        advance(PERIOD.multipliedBy(10));
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void idleBucketsAreDropped() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, PERIOD, 1000, clock::get);
+        String first = keyInStripe(5, null);
+        String second = keyInStripe(5, first);
+        limiter.tryAcquire(first);
+        advance(Duration.ofMillis(1));
+        limiter.tryAcquire(second);
+        assertEquals(2, limiter.size());
+
+        advance(PERIOD);
+        limiter.tryAcquire(first);
+
+        assertEquals(1, limiter.size(), "idle buckets in the touched stripe are evicted");
+    }
+
+    @Test
+    void keysInDifferentStripesDoNotEvictEachOther() {
+        // one key per stripe
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, PERIOD, STRIPES, clock::get);
+        String first = keyInStripe(0, null);
+        String second = keyInStripe(1, null);
+
+        assertEquals(0, limiter.tryAcquire(first));
+        assertEquals(0, limiter.tryAcquire(second));
+
+        assertTrue(limiter.tryAcquire(first) > 0);
+        assertTrue(limiter.tryAcquire(second) > 0);
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void fullStripeEvictsLeastRecentlyUsedKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, PERIOD, STRIPES, clock::get);
+        String first = keyInStripe(3, null);
+        String second = keyInStripe(3, first);
+
+        assertEquals(0, limiter.tryAcquire(first));
+        assertTrue(limiter.tryAcquire(first) > 0);
+        assertEquals(0, limiter.tryAcquire(second));
+
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.tryAcquire(first), "evicted key starts with a full bucket");
+    }
+
+    @Test
+    void sizeNeverExceedsMaxKeys() {
+        int maxKeys = STRIPES * 4;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, PERIOD, maxKeys, clock::get);
+
+        for (int i = 0; i < maxKeys * 10; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        assertTrue(limiter.size() <= maxKeys);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private static String keyInStripe(int stripe, String other) {
+        for (int i = 0; ; i++) {
+            String key = "key-" + i;
+            if (TokenBucketRateLimiter.stripeOf(key) == stripe && !key.equals(other)) {
+                return key;
+            }
+        }
+    }
+}
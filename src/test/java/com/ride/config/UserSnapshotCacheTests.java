@@ -0,0 +1,125 @@
+package com.ride.config;
+
+import com.ride.domain.enums.UserStatus;
+import com.ride.dto.user.UserSnapshotDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSnapshotCacheTests {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Test
+    void invalidationDuringLoadIsNotOverwrittenByTheLoad() throws Exception {
+        UserSnapshotCache cache = new UserSnapshotCache(TTL, 100);
+        BlockingLoader loader = new BlockingLoader();
+
+        CompletableFuture<UserSnapshotDTO> load = CompletableFuture.supplyAsync(() -> cache.get("111", loader));
+        assertTrue(loader.started.await(5, TimeUnit.SECONDS));
+        cache.invalidate("111");
+        loader.release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        cache.get("111", loader);
+        assertEquals(2, loader.calls.get(), "The load that raced the invalidation must not be cached");
+    }
+
+    @Test
+    void invalidatingAnotherKeyDuringLoadStillCaches() throws Exception {
+        UserSnapshotCache cache = new UserSnapshotCache(TTL, 100);
+        BlockingLoader loader = new BlockingLoader();
+
+        CompletableFuture<UserSnapshotDTO> load = CompletableFuture.supplyAsync(() -> cache.get("111", loader));
+        assertTrue(loader.started.await(5, TimeUnit.SECONDS));
+        cache.invalidate("222");
+        loader.release.countDown();
+        UserSnapshotDTO loaded = load.get(5, TimeUnit.SECONDS);
+
+        assertSame(loaded, cache.get("111", loader));
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        UserSnapshotCache cache = new UserSnapshotCache(TTL, 100);
+        BlockingLoader loader = new BlockingLoader();
+
+        CompletableFuture<UserSnapshotDTO> first = CompletableFuture.supplyAsync(() -> cache.get("111", loader));
+        assertTrue(loader.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UserSnapshotDTO> second = CompletableFuture.supplyAsync(() -> cache.get("111", loader));
+        loader.release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    void loadAfterInvalidationIsCached() {
+        UserSnapshotCache cache = new UserSnapshotCache(TTL, 100);
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, UserSnapshotDTO> loader = cpf -> {
+            calls.incrementAndGet();
+            return snapshot(cpf);
+        };
+
+        cache.get("111", loader);
+        cache.invalidate("111");
+        cache.get("111", loader);
+        cache.get("111", loader);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void fullCacheEvictsSingleEntries() {
+        int maxSize = 50;
+        UserSnapshotCache cache = new UserSnapshotCache(TTL, maxSize);
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, UserSnapshotDTO> loader = cpf -> {
+            calls.incrementAndGet();
+            return snapshot(cpf);
+        };
+
+        for (int i = 0; i < maxSize * 4; i++) {
+            cache.get(String.valueOf(i), loader);
+        }
+
+        assertEquals(maxSize, cache.size());
+    }
+
+    private static UserSnapshotDTO snapshot(String cpf) {
+        return new UserSnapshotDTO(UUID.randomUUID(), cpf, "User " + cpf, cpf + "@example.com", null,
+                UserStatus.ACTIVE, Set.of());
+    }
+
+    private static final class BlockingLoader implements Function<String, UserSnapshotDTO> {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public UserSnapshotDTO apply(String cpf) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return snapshot(cpf);
+        }
+    }
+}
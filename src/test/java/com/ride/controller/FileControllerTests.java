@@ -0,0 +1,125 @@
+package com.ride.controller;
+
+import com.ride.config.JWTTokenProvider;
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.domain.enums.UserStatus;
+import com.ride.repository.UserRepository;
+import com.ride.service.ObjectStorage;
+import com.ride.support.Cpfs;
+import com.ride.support.PostgresIntegrationTest;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FileControllerTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTTokenProvider jwtTokenProvider;
+
+    private MockMvc mockMvc;
+    private String key;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+        key = "documents/" + UUID.randomUUID() + ".pdf";
+        Path staged = Files.createTempFile("file-controller-", ".tmp");
+        Files.writeString(staged, "cnh of the owner");
+        objectStorage.put(key, staged, "application/pdf");
+    }
+
+    @Test
+    void ownerReadsTheirDocumentWithoutCaching() throws Exception {
+        User owner = user(UserRole.DRIVER, objectStorage.url(key));
+
+        mockMvc.perform(get("/files/" + key).header(HttpHeaders.AUTHORIZATION, bearer(owner)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store, private"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+                .andExpect(content().string("cnh of the owner"));
+    }
+
+    @Test
+    void adminReadsAnyDocument() throws Exception {
+        user(UserRole.DRIVER, objectStorage.url(key));
+        User admin = user(UserRole.ADMIN, null);
+
+        mockMvc.perform(get("/files/" + key).header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes("cnh of the owner".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void otherUserIsForbidden() throws Exception {
+        user(UserRole.DRIVER, objectStorage.url(key));
+        User other = user(UserRole.DRIVER, null);
+
+        mockMvc.perform(get("/files/" + key).header(HttpHeaders.AUTHORIZATION, bearer(other)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void anonymousRequestIsRejected() throws Exception {
+        user(UserRole.DRIVER, objectStorage.url(key));
+
+        mockMvc.perform(get("/files/" + key))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void missingObjectIsNotFoundForAdmins() throws Exception {
+        User admin = user(UserRole.ADMIN, null);
+
+        mockMvc.perform(get("/files/documents/" + UUID.randomUUID() + ".pdf").header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isNotFound());
+    }
+
+    private User user(UserRole role, String cnhImageUrl) {
+        String cpf = Cpfs.random();
+        return userRepository.save(User.builder()
+                .name("Files " + cpf)
+                .email(cpf + "@files.example.com")
+                .cpf(cpf)
+                .status(UserStatus.ACTIVE)
+                .roles(Set.of(role))
+                .cnhImageUrl(cnhImageUrl)
+                .build());
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtTokenProvider.generateJwtToken(user);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ride.controller;
+
+import com.ride.domain.enums.WalletType;
+import com.ride.exception.ServiceOverloadedException;
+import com.ride.service.WalletTransactionService;
+import com.ride.service.WalletTransactionService.StatementFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WalletControllerTests {
+
+    private final WalletTransactionService walletTransactionService =
+            new WalletTransactionService(null, null, null, null, new SimpleMeterRegistry(), 1) {
+                @Override
+                public Long findWalletId(WalletType type) {
+                    return 1L;
+                }
+
+                @Override
+                public void exportStatement(Long walletId, StatementFormat format, LocalDateTime from, LocalDateTime to,
+                                            OutputStream outputStream) {
+                }
+            };
+    private final WalletController controller = new WalletController(null, walletTransactionService, null);
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/wallets/DRIVER/transactions/export");
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheBodyIsWritten() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+
+        startExport(tasks::add);
+        tasks.forEach(Runnable::run);
+        assertSlotFree();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheExecutorRejectsTheBody() throws Exception {
+        startExport(task -> {
+            throw new TaskRejectedException("Export executor is full");
+        });
+        assertThrows(ServiceOverloadedException.class, this::export, "The slot is held until the request completes");
+
+        asyncContext().complete();
+        assertSlotFree();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheRequestTimesOutBeforeTheBodyRuns() throws Exception {
+        startExport(task -> {
+        });
+
+        MockAsyncContext asyncContext = asyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+        assertSlotFree();
+    }
+
+    @Test
+    void slotIsReleasedWhenTheClientGoesAwayBeforeTheBodyRuns() throws Exception {
+        startExport(task -> {
+        });
+
+        MockAsyncContext asyncContext = asyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+        asyncContext.complete();
+        assertSlotFree();
+    }
+
+    // Hands the returned body to async processing the way Spring MVC does, on the given executor
+    private void startExport(AsyncTaskExecutor executor) throws Exception {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(executor);
+
+        ResponseEntity<StreamingResponseBody> entity = export();
+        MethodParameter returnType = new MethodParameter(WalletController.class.getMethod("exportTransactions",
+                WalletType.class, String.class, LocalDateTime.class, LocalDateTime.class,
+                HttpServletRequest.class), -1);
+        new StreamingResponseBodyReturnValueHandler().handleReturnValue(entity, returnType,
+                new ModelAndViewContainer(), new ServletWebRequest(request, response));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export() {
+        return controller.exportTransactions(WalletType.DRIVER, "csv", null, null, request);
+    }
+
+    private MockAsyncContext asyncContext() {
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+
+    private void assertSlotFree() {
+        walletTransactionService.acquireExportSlot().close();
+    }
+}
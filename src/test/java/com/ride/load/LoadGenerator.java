@@ -0,0 +1,138 @@
+package com.ride.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load: requests start on a fixed schedule at the configured rate, each on
+ * its own virtual thread, whether or not earlier ones have finished. Latency runs from
+ * the scheduled start, so a stalled server shows up in the tail instead of silently
+ * lowering the offered rate (no coordinated omission).
+ */
+final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    static LoadResult run(List<WeightedOperation> mix, double ratePerSecond, Duration duration, long seed) {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        int totalWeight = 0;
+        for (WeightedOperation operation : mix) {
+            stats.putIfAbsent(operation.endpoint(), new EndpointStats());
+            totalWeight += operation.weight();
+        }
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long requests = Math.max(1, duration.toNanos() / intervalNanos);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                WeightedOperation operation = pick(mix, random.nextInt(totalWeight));
+                EndpointStats endpoint = stats.get(operation.endpoint());
+                executor.execute(() -> {
+                    boolean success;
+                    try {
+                        success = operation.operation().call();
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    endpoint.record(System.nanoTime() - scheduled, success);
+                });
+            }
+        }
+        return new LoadResult(stats, Duration.ofNanos(System.nanoTime() - start), ratePerSecond);
+    }
+
+    private static WeightedOperation pick(List<WeightedOperation> mix, int roll) {
+        for (WeightedOperation operation : mix) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return mix.getLast();
+    }
+
+    @FunctionalInterface
+    interface Operation {
+
+        /**
+         * @return whether the response was the expected one
+         */
+        boolean call() throws Exception;
+    }
+
+    record WeightedOperation(String endpoint, int weight, Operation operation) {
+    }
+
+    static final class EndpointStats {
+
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, boolean success) {
+            latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        double errorRate() {
+            return count() == 0 ? 0 : (double) errors.sum() / count();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        double maxMillis() {
+            return latencyMicros.getMaxValue() / 1000.0;
+        }
+    }
+
+    record LoadResult(Map<String, EndpointStats> endpoints, Duration elapsed, double targetRate) {
+
+        double throughput() {
+            long total = endpoints.values().stream().mapToLong(EndpointStats::count).sum();
+            return total / (elapsed.toNanos() / 1e9);
+        }
+
+        String report() {
+            double seconds = elapsed.toNanos() / 1e9;
+            StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                    "Offered %.1f req/s, achieved %.1f req/s over %.1f s%n", targetRate, throughput(), seconds));
+            report.append(String.format(Locale.ROOT, "%-10s %9s %9s %9s %9s %9s %9s %8s%n",
+                    "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors"));
+            endpoints.forEach((name, stats) -> report.append(String.format(Locale.ROOT,
+                    "%-10s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+                    name, stats.count(), stats.count() / seconds,
+                    stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9),
+                    stats.maxMillis(), stats.errorRate() * 100)));
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ride.load;
+
+import com.ride.load.LoadGenerator.EndpointStats;
+import com.ride.load.LoadGenerator.LoadResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Regression limits for a load run, read from a classpath properties file: per
+ * endpoint {@code <endpoint>.p50-ms}, {@code .p99-ms}, {@code .p999-ms} and
+ * {@code .max-error-rate}, plus {@code min-throughput-ratio} of the offered rate.
+ * Missing keys are not checked.
+ */
+final class LoadThresholds {
+
+    private final Properties properties;
+
+    private LoadThresholds(Properties properties) {
+        this.properties = properties;
+    }
+
+    static LoadThresholds load(String resource) {
+        Properties properties = new Properties();
+        try (InputStream in = LoadThresholds.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Threshold file not found on classpath: " + resource);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new LoadThresholds(properties);
+    }
+
+    List<String> violations(LoadResult result) {
+        List<String> violations = new ArrayList<>();
+
+        String minRatio = properties.getProperty("min-throughput-ratio");
+        if (minRatio != null && result.throughput() < result.targetRate() * Double.parseDouble(minRatio)) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f req/s is below %s of the offered %.1f req/s",
+                    result.throughput(), minRatio, result.targetRate()));
+        }
+
+        for (Map.Entry<String, EndpointStats> entry : result.endpoints().entrySet()) {
+            String endpoint = entry.getKey();
+            EndpointStats stats = entry.getValue();
+            checkAtMost(violations, endpoint, "p50-ms", stats.percentileMillis(50));
+            checkAtMost(violations, endpoint, "p99-ms", stats.percentileMillis(99));
+            checkAtMost(violations, endpoint, "p999-ms", stats.percentileMillis(99.9));
+            checkAtMost(violations, endpoint, "max-error-rate", stats.errorRate());
+        }
+        return violations;
+    }
+
+    private void checkAtMost(List<String> violations, String endpoint, String metric, double actual) {
+        String limit = properties.getProperty(endpoint + "." + metric);
+        if (limit != null && actual > Double.parseDouble(limit)) {
+            violations.add(String.format(Locale.ROOT, "%s %s = %.3f exceeds %s", endpoint, metric, actual, limit));
+        }
+    }
+}
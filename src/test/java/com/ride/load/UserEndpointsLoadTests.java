@@ -0,0 +1,264 @@
+package com.ride.load;
+
+import com.ride.load.LoadGenerator.LoadResult;
+import com.ride.load.LoadGenerator.WeightedOperation;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load run of the user endpoints against an embedded Postgres binary (no
+ * Docker, no network). A seeded pool of users is registered and logged in, a warm-up
+ * run is discarded, then the measured run drives register/login/me/update at
+ * {@code load.rate} requests per second for {@code load.duration}. The report goes to
+ * the log and {@code target/load-report.txt}; the test fails when any limit in
+ * {@code load-thresholds.properties} is exceeded.
+ *
+ * <p>Run with {@code mvn -Ploadtest test}; tune with {@code -Dload.rate},
+ * {@code -Dload.duration}, {@code -Dload.warmup}, {@code -Dload.users} and
+ * {@code -Dload.mix=register:10,login:20,me:55,update:15}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=load-test-secret-load-test-secret-load-test-secret-0123456789",
+        "jwt.expiration=3600000",
+        "spring.jpa.show-sql=false",
+        // Every simulated user shares one client IP; keep the login buckets out of the way
+        "security.login-rate-limit.ip.capacity=1000000",
+        "security.login-rate-limit.cpf.capacity=1000000"
+})
+class UserEndpointsLoadTests {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final List<LoadUser> registered = new CopyOnWriteArrayList<>();
+    private final List<LoadUser> loggedIn = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private HttpClient client;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void userEndpointsStayWithinThresholds() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "50"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        int seededUsers = Integer.parseInt(System.getProperty("load.users", "100"));
+        String mixSpec = System.getProperty("load.mix", "register:10,login:20,me:55,update:15");
+
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            client = httpClient;
+            seedUsers(seededUsers);
+
+            List<WeightedOperation> mix = mix(mixSpec);
+            log.info("Warm-up: {} req/s for {}", rate, warmup);
+            LoadGenerator.run(mix, rate, warmup, 1);
+
+            log.info("Measured run: {} req/s for {}", rate, duration);
+            LoadResult result = LoadGenerator.run(mix, rate, duration, 2);
+            String report = result.report();
+            log.info("Load report:\n{}", report);
+            Files.writeString(Path.of("target", "load-report.txt"), report);
+
+            List<String> violations = LoadThresholds.load("load-thresholds.properties").violations(result);
+            assertTrue(violations.isEmpty(), "Load thresholds exceeded:\n" + String.join("\n", violations));
+        }
+    }
+
+    private void seedUsers(int count) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> seeded = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                seeded.add(executor.submit(() -> {
+                    LoadUser user = register();
+                    return user != null && login(user);
+                }));
+            }
+            for (Future<Boolean> future : seeded) {
+                assertTrue(future.get(), "Seeding a load-test user failed");
+            }
+        }
+    }
+
+    private List<WeightedOperation> mix(String spec) {
+        List<WeightedOperation> mix = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String endpoint = parts[0];
+            int weight = Integer.parseInt(parts[1]);
+            LoadGenerator.Operation operation = switch (endpoint) {
+                case "register" -> () -> register() != null;
+                case "login" -> () -> login(random(registered));
+                case "me" -> () -> me(random(loggedIn));
+                case "update" -> () -> update(random(loggedIn));
+                default -> throw new IllegalArgumentException("Unknown load endpoint: " + endpoint);
+            };
+            mix.add(new WeightedOperation(endpoint, weight, operation));
+        }
+        return mix;
+    }
+
+    private LoadUser register() throws Exception {
+        long n = sequence.incrementAndGet();
+        String cpf = cpf(n);
+        HttpResponse<String> response = post("/auth/register", null, Map.of(
+                "name", "Load User " + n,
+                "email", "load-" + n + "@example.com",
+                "cpf", cpf,
+                "password", PASSWORD));
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        LoadUser user = new LoadUser(cpf);
+        registered.add(user);
+        return user;
+    }
+
+    private boolean login(LoadUser user) throws Exception {
+        HttpResponse<String> response = post("/auth/login", null, Map.of("cpf", user.cpf, "password", PASSWORD));
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        boolean first = user.token == null;
+        user.token = objectMapper.readTree(response.body()).path("token").asString();
+        if (first) {
+            loggedIn.add(user);
+        }
+        return true;
+    }
+
+    private boolean me(LoadUser user) throws Exception {
+        HttpRequest request = request("/users/me", user.token).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() == 200;
+    }
+
+    private boolean update(LoadUser user) throws Exception {
+        String phone = "+55119" + String.format("%08d", ThreadLocalRandom.current().nextInt(100_000_000));
+        return post("/users/update", user.token, Map.of("name", "Load User " + user.cpf, "phoneNumber", phone))
+                .statusCode() == 200;
+    }
+
+    private HttpResponse<String> post(String path, String token, Map<String, String> body) throws Exception {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static LoadUser random(List<LoadUser> users) {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    // Valid, unique CPF built from a 9-digit base, formatted as 000.000.000-00
+    static String cpf(long n) {
+        int[] digits = new int[11];
+        long base = 100_000_000L + n;
+        for (int i = 8; i >= 0; i--) {
+            digits[i] = (int) (base % 10);
+            base /= 10;
+        }
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        StringBuilder cpf = new StringBuilder(14);
+        for (int i = 0; i < 11; i++) {
+            if (i == 3 || i == 6) {
+                cpf.append('.');
+            } else if (i == 9) {
+                cpf.append('-');
+            }
+            cpf.append(digits[i]);
+        }
+        return cpf.toString();
+    }
+
+    private static int checkDigit(int[] digits, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+    }
+
+    private static final class LoadUser {
+
+        private final String cpf;
+        private volatile String token;
+
+        private LoadUser(String cpf) {
+            this.cpf = cpf;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.ride.repository;
+
+import com.ride.domain.enums.WalletType;
+import com.ride.service.LedgerService;
+import com.ride.service.WalletBalanceService;
+import com.ride.service.WalletReconciliationJob;
+import com.ride.service.WalletRollupService;
+import com.ride.service.WalletShardService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository method against a seeded embedded Postgres, captures the SQL
+ * Hibernate sends, adds the hand-written ledger/shard statements, and checks the
+ * generic plan of each ({@code EXPLAIN (GENERIC_PLAN)}, Postgres 16+) for unbounded
+ * scans of the seeded tables: a sequential scan, or an index or bitmap index scan
+ * without an {@code Index Cond}, i.e. a walk over the whole index. Index scans of
+ * partial indexes, whose predicate bounds them, and directly under a {@code Limit}
+ * (first keyset page) are accepted, and the user export, which reads every user by
+ * design, is left out. Partitions without rows (months ahead, DEFAULT) are not
+ * judged: walking an empty index costs nothing, so the planner's pick there says
+ * nothing about the populated partitions. Sequential scans are disabled for the session, so one only
+ * shows up when no index can serve the query at all.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=query-plan-secret-query-plan-secret-query-plan-secret-0123456789",
+        "jwt.expiration=3600000",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ride.repository.QueryPlanRegressionTests$CapturingStatementInspector"
+})
+class QueryPlanRegressionTests {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final Set<String> SEEDED_TABLES = Set.of("users", "wallets", "wallet_shards", "transactions");
+
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+
+    // Table of every index and partition, partitions and their indexes resolved to the partitioned table;
+    // empty marks those whose own table ANALYZE found without rows
+    private static final String RELATIONS_SQL = """
+            SELECT i.indexrelid::regclass::text AS name, coalesce(h.inhparent, i.indrelid)::regclass::text AS table_name,
+                   i.indpred IS NOT NULL AS partial, c.reltuples = 0 AS empty
+              FROM pg_index i
+              JOIN pg_class c ON c.oid = i.indrelid
+              LEFT JOIN pg_inherits h ON h.inhrelid = i.indrelid
+            UNION ALL
+            SELECT h.inhrelid::regclass::text, h.inhparent::regclass::text, false, c.reltuples = 0
+              FROM pg_inherits h
+              JOIN pg_class c ON c.oid = h.inhrelid AND c.relkind = 'r'
+            """;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void noRepositoryQueryScansASeededTableUnbounded() throws SQLException {
+        seed();
+        CapturingStatementInspector.STATEMENTS.clear();
+        runRepositoryQueries();
+
+        Set<String> statements = new TreeSet<>(CapturingStatementInspector.STATEMENTS);
+        statements.removeAll(fullExportStatements());
+        statements.add(staticSql(LedgerService.class, "APPLY_DELTA_SQL"));
+        statements.add(staticSql(LedgerService.class, "INSERT_TRANSACTION_SQL"));
+        statements.add(staticSql(WalletShardService.class, "CREDIT_SHARD_SQL"));
+        statements.add(staticSql(WalletBalanceService.class, "BALANCE_SQL"));
+        statements.add(staticSql(WalletBalanceService.class, "RANGE_END_SQL"));
+        statements.add(staticSql(WalletBalanceService.class, "ADVANCE_SQL"));
+        statements.add(staticSql(WalletReconciliationJob.class, "RECONCILE_SQL"));
+        statements.add(staticSql(WalletReconciliationJob.class, "INSERT_DRIFT_SQL"));
+        statements.add(staticSql(WalletReconciliationJob.class, "VERIFIED_SQL"));
+        statements.add(staticSql(WalletRollupService.class, "UPSERT_DAILY_SQL"));
+        statements.add(staticSql(WalletRollupService.class, "UPSERT_MONTHLY_SQL"));
+        statements.add(staticSql(WalletRollupService.class, "DAILY_EARNINGS_SQL"));
+        statements.add(staticSql(WalletRollupService.class, "MONTHLY_EARNINGS_SQL"));
+        statements.add("SELECT id, balance FROM wallet_shards WHERE wallet_id = ? AND balance <> 0");
+        statements.add("SELECT DISTINCT wallet_id FROM wallet_shards WHERE balance <> 0");
+        statements.add("UPDATE wallet_shards SET balance = balance - ? WHERE id = ?");
+        assertFalse(statements.isEmpty(), "No SQL was captured");
+
+        Relations relations = loadRelations();
+        List<String> unboundedScans = new ArrayList<>();
+        try (Connection connection = planConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            for (String sql : statements) {
+                try (ResultSet plan = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberedParameters(sql))) {
+                    plan.next();
+                    List<String> scanned = new ArrayList<>();
+                    collectUnboundedScans(objectMapper.readTree(plan.getString(1)), "", relations, scanned);
+                    if (!scanned.isEmpty()) {
+                        unboundedScans.add(scanned + " for: " + sql);
+                    }
+                }
+            }
+        }
+
+        assertTrue(unboundedScans.isEmpty(), "Queries scanning a whole table or index:\n" + String.join("\n", unboundedScans));
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("""
+                INSERT INTO users (id, name, email, cpf, password_hash, created_at, status, balance)
+                SELECT gen_random_uuid(), 'Plan User ' || n, 'plan' || n || '@example.com', lpad(n::text, 11, '0'),
+                       'x', now(), 'ACTIVE', 0
+                  FROM generate_series(1, 5000) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO wallets (id, user_id, type, balance, shard_count, version, created_at)
+                SELECT nextval('wallets_seq'), id, 'PASSENGER', 0, 1, 0, now() FROM users
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO transactions (wallet_id, type, amount, reason, reference_id, reference_type, created_at)
+                SELECT w.id, 'DEPOSIT', 1.00, 'seed', w.id * 100 + n, 'RIDE', now() - n * interval '1 minute'
+                  FROM wallets w CROSS JOIN generate_series(1, 10) n
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO wallet_shards (wallet_id, shard_index, balance)
+                SELECT id, 0, 0 FROM wallets
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void runRepositoryQueries() {
+        UUID id = UUID.randomUUID();
+        userRepository.findById(id);
+        userRepository.findByEmail("plan1@example.com");
+        userRepository.findByCpf("00000000001");
+        userRepository.findExistingCpfs(Set.of("00000000001", "00000000002"));
+        userRepository.findExistingEmails(Set.of("plan1@example.com", "plan2@example.com"));
+        userRepository.existsByCpfAndDocumentUrl("00000000001", "http://localhost:8080/files/documents/a.pdf");
+        userRepository.updatePasswordHash(id, "current", "next");
+        userRepository.updateCnhThumbnailUrl(id, "image", "thumbnail");
+        userRepository.updateCarDocumentThumbnailUrl(id, "image", "thumbnail");
+        userRepository.findSummaries(PageRequest.ofSize(50));
+        userRepository.findSummariesAfter(id, PageRequest.ofSize(50));
+
+        walletRepository.findById(1L);
+        walletRepository.findByUserIdAndType(id, WalletType.PASSENGER);
+
+        transactionRepository.findByReferenceTypeAndReferenceId("RIDE", 101L);
+        transactionRepository.findHistory(1L, PageRequest.ofSize(50));
+        transactionRepository.findHistoryBefore(1L, LocalDateTime.now(), 1000L, PageRequest.ofSize(50));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> statement = transactionRepository.streamStatement(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now())) {
+                statement.limit(1).count();
+            }
+            outboxEventRepository.lockNextBatch(10);
+            outboxEventRepository.deleteByIds(List.of(1L, 2L));
+            status.setRollbackOnly();
+        });
+    }
+
+    // The user export reads every user by design, walking the primary key in order
+    private Set<String> fullExportStatements() {
+        CapturingStatementInspector.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<?> summaries = userRepository.streamSummaries()) {
+                summaries.limit(1).count();
+            }
+        });
+        return Set.copyOf(CapturingStatementInspector.STATEMENTS);
+    }
+
+    // Over the extended protocol the $n placeholders would have to be bound, so plans are read in simple mode
+    private static Connection planConnection() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl("postgres", "postgres") + "&preferQueryMode=simple");
+    }
+
+    // JDBC-style ? placeholders to $n, which EXPLAIN (GENERIC_PLAN) accepts without values
+    private static String numberedParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private Relations loadRelations() {
+        Map<String, String> tables = new HashMap<>();
+        Set<String> partialIndexes = new HashSet<>();
+        Set<String> emptyRelations = new HashSet<>();
+        jdbcTemplate.query(RELATIONS_SQL, (RowCallbackHandler) row -> {
+            tables.put(row.getString("name"), row.getString("table_name"));
+            if (row.getBoolean("partial")) {
+                partialIndexes.add(row.getString("name"));
+            }
+            if (row.getBoolean("empty")) {
+                emptyRelations.add(row.getString("name"));
+            }
+        });
+        return new Relations(tables, partialIndexes, emptyRelations);
+    }
+
+    // parentType is the node type of the closest enclosing plan node
+    private static void collectUnboundedScans(JsonNode node, String parentType, Relations relations, List<String> scans) {
+        if (node.isArray()) {
+            node.forEach(child -> collectUnboundedScans(child, parentType, relations, scans));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        String nodeType = node.path("Node Type").asString("");
+        String relation = node.path("Relation Name").asString("");
+        String index = node.path("Index Name").asString("");
+        if ("Seq Scan".equals(nodeType) && relations.seeded(relation)) {
+            scans.add("Seq Scan on " + relation);
+        } else if (INDEX_SCANS.contains(nodeType) && relations.seeded(index) && !node.has("Index Cond")
+                && !relations.partialIndexes().contains(index) && !"Limit".equals(parentType)) {
+            scans.add(nodeType + " without Index Cond on " + index);
+        }
+        String childParent = nodeType.isEmpty() ? parentType : nodeType;
+        node.forEach(child -> collectUnboundedScans(child, childParent, relations, scans));
+    }
+
+    private static String staticSql(Class<?> type, String field) {
+        return (String) ReflectionTestUtils.getField(type, field);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+    }
+
+    private record Relations(Map<String, String> tables, Set<String> partialIndexes, Set<String> emptyRelations) {
+
+        boolean seeded(String relation) {
+            return SEEDED_TABLES.contains(tables.getOrDefault(relation, relation)) && !emptyRelations.contains(relation);
+        }
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final Set<String> STATEMENTS = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.domain.enums.RideRequestStatus;
+import com.ride.service.RideDispatcher.DispatchRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays synthetic demand against an in-memory fleet, one dispatch window at a
+ * time, without Spring or a database.
+ */
+@Slf4j
+class DispatchSimulationTests {
+
+    private static final double MIN_LAT = -23.65;
+    private static final double MAX_LAT = -23.45;
+    private static final double MIN_LON = -46.75;
+    private static final double MAX_LON = -46.55;
+    private static final int DRIVERS = 3_000;
+    private static final int WINDOWS = 15;
+    private static final int REQUESTS_PER_WINDOW = 100;
+    private static final double MAX_PICKUP_METERS = 5_000;
+
+    @Test
+    void replaysSyntheticDemand() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DriverLocationIndex index = new DriverLocationIndex(0.01, Duration.ofHours(1), meterRegistry);
+        ZoneMarketState marketState = new ZoneMarketState(index, 0.05, Duration.ofMinutes(5), 30);
+        RideDispatcher dispatcher = new RideDispatcher(index, marketState, meterRegistry, Duration.ofSeconds(2), 0.05, 4, 200, 8,
+                MAX_PICKUP_METERS, Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofMinutes(10));
+
+        SplittableRandom random = new SplittableRandom(7);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < DRIVERS; i++) {
+            index.update(UUID.randomUUID(), random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON),
+                    DriverAvailability.AVAILABLE, now);
+        }
+
+        List<DispatchRequest> requests = new ArrayList<>();
+        long started = System.nanoTime();
+        try {
+            for (int window = 0; window < WINDOWS; window++) {
+                for (int i = 0; i < REQUESTS_PER_WINDOW; i++) {
+                    requests.add(dispatcher.submit(UUID.randomUUID(),
+                            random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON),
+                            random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)));
+                }
+                dispatcher.dispatchNow();
+            }
+        } finally {
+            dispatcher.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Set<UUID> drivers = new HashSet<>();
+        int assigned = 0;
+        for (DispatchRequest request : requests) {
+            if (request.getStatus() == RideRequestStatus.ASSIGNED) {
+                assigned++;
+                assertTrue(drivers.add(request.getDriverId()), "Driver assigned twice: " + request.getDriverId());
+                assertTrue(request.getPickupDistanceMeters() <= MAX_PICKUP_METERS);
+            }
+        }
+
+        Timer latency = meterRegistry.get("ride.dispatch.latency").timer();
+        double p99 = 0;
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                p99 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        log.info("Dispatched {}/{} requests in {}s ({} req/s), p99 dispatch latency {} ms",
+                assigned, requests.size(), seconds, requests.size() / seconds, p99);
+
+        assertTrue(assigned >= requests.size() * 0.95, "Only " + assigned + " of " + requests.size() + " requests assigned");
+        assertEquals(assigned, (long) latency.count());
+    }
+
+    @Test
+    void batchAssignmentIsOptimalAndNeverWorseThanGreedy() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(10) == 0 ? HungarianAssignment.INFEASIBLE : random.nextDouble(0, 5_000);
+                }
+            }
+
+            int[] assignment = HungarianAssignment.solve(cost);
+            assertEquals(bruteForce(cost, 0, new boolean[columns]), score(cost, assignment), 0.1);
+            assertTrue(score(cost, assignment) <= score(cost, greedy(cost)) + 0.1);
+        }
+    }
+
+    // Unassigned rows cost INFEASIBLE, so maximizing matches comes first, then total distance
+    private static double score(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            total += assignment[i] < 0 ? HungarianAssignment.INFEASIBLE : cost[i][assignment[i]];
+        }
+        return total;
+    }
+
+    private static double bruteForce(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = HungarianAssignment.INFEASIBLE + bruteForce(cost, row + 1, used);
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j] && cost[row][j] < HungarianAssignment.INFEASIBLE) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+
+    private static int[] greedy(double[][] cost) {
+        int[] assignment = new int[cost.length];
+        boolean[] used = new boolean[cost[0].length];
+        for (int i = 0; i < cost.length; i++) {
+            assignment[i] = -1;
+            for (int j = 0; j < used.length; j++) {
+                if (!used[j] && cost[i][j] < HungarianAssignment.INFEASIBLE
+                        && (assignment[i] < 0 || cost[i][j] < cost[i][assignment[i]])) {
+                    assignment[i] = j;
+                }
+            }
+            if (assignment[i] >= 0) {
+                used[assignment[i]] = true;
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.service.DriverLocationIndex.DriverPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DriverLocationCoalescerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DriverLocationIndex index = new DriverLocationIndex(0.01, Duration.ofHours(1), meterRegistry);
+    private final DriverLocationCoalescer coalescer = new DriverLocationCoalescer(index, meterRegistry, Duration.ofSeconds(30));
+    private final UUID driver = UUID.randomUUID();
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    void latestPingWinsAndABurstCostsOneIndexUpdate() {
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, now - 300);
+        coalescer.offer(driver, 2.0, 2.0, DriverAvailability.AVAILABLE, now - 200);
+        coalescer.offer(driver, 3.0, 3.0, DriverAvailability.ON_TRIP, now - 100);
+
+        coalescer.flush();
+
+        assertPosition(3.0, DriverAvailability.ON_TRIP, now - 100);
+        assertEquals(3, meterRegistry.counter("driver.location.stream.received").count());
+        assertEquals(1, meterRegistry.counter("driver.location.stream.applied").count());
+    }
+
+    @Test
+    void olderPingDoesNotReplaceAPendingNewerOne() {
+        coalescer.offer(driver, 2.0, 2.0, DriverAvailability.AVAILABLE, now - 100);
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, now - 200);
+
+        coalescer.flush();
+
+        assertPosition(2.0, DriverAvailability.AVAILABLE, now - 100);
+    }
+
+    @Test
+    void olderPingAfterAFlushIsRejectedByTheIndex() {
+        coalescer.offer(driver, 2.0, 2.0, DriverAvailability.AVAILABLE, now - 100);
+        coalescer.flush();
+
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, now - 200);
+        coalescer.flush();
+
+        assertPosition(2.0, DriverAvailability.AVAILABLE, now - 100);
+    }
+
+    @Test
+    void futureTimestampIsClampedToReceiptTime() {
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, Long.MAX_VALUE);
+        coalescer.flush();
+
+        assertTrue(index.get(driver).timestamp() <= System.currentTimeMillis());
+    }
+
+    @Test
+    void removeDropsAPendingSlotAndTheIndexedPosition() {
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, now - 200);
+        coalescer.flush();
+        coalescer.offer(driver, 2.0, 2.0, DriverAvailability.AVAILABLE, now - 100);
+
+        coalescer.remove(driver);
+        coalescer.flush();
+
+        assertNull(index.get(driver));
+        assertEquals(1, meterRegistry.counter("driver.location.stream.applied").count());
+    }
+
+    @Test
+    void pingAfterRemoveStartsAFreshSlot() {
+        coalescer.offer(driver, 1.0, 1.0, DriverAvailability.AVAILABLE, now - 100);
+        coalescer.remove(driver);
+
+        coalescer.offer(driver, 2.0, 2.0, DriverAvailability.AVAILABLE, now - 200);
+        coalescer.flush();
+
+        assertPosition(2.0, DriverAvailability.AVAILABLE, now - 200);
+    }
+
+    private void assertPosition(double coordinate, DriverAvailability availability, long timestamp) {
+        DriverPosition position = index.get(driver);
+        assertEquals(coordinate, position.latitude());
+        assertEquals(coordinate, position.longitude());
+        assertEquals(availability, position.availability());
+        assertEquals(timestamp, position.timestamp());
+    }
+}
@@ -0,0 +1,158 @@
+package com.ride.service;
+
+import com.ride.domain.enums.DriverAvailability;
+import com.ride.service.DriverLocationIndex.DriverMatch;
+import com.ride.service.DriverLocationIndex.DriverPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the grid queries with a scan of every driver, for random positions and
+ * for queries on cell edges, across the antimeridian and at the poles.
+ */
+class DriverLocationIndexTests {
+
+    private static final double CELL_SIZE = 0.01;
+    private static final Set<DriverAvailability> AVAILABLE = EnumSet.of(DriverAvailability.AVAILABLE);
+    private static final double[][] SPECIAL_POINTS = {
+            {0, 0},
+            {-23.55, -46.63},
+            {-23.5, -46.6},
+            {12.34, 179.999},
+            {-12.34, -180},
+            {0, 180},
+            {89.999, 10},
+            {90, 0},
+            {-89.995, -170},
+            {-90, 0},
+            {60.0, -0.005}
+    };
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final DriverLocationIndex index = new DriverLocationIndex(CELL_SIZE, Duration.ofHours(1), new SimpleMeterRegistry());
+    private final List<DriverPosition> drivers = new ArrayList<>();
+
+    @Test
+    void randomQueriesMatchBruteForce() {
+        addRandomDrivers(2_000, -90, 90, -180, 180);
+        for (double[] point : SPECIAL_POINTS) {
+            addDriversAround(point[0], point[1], 200, 0.2);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            double[] center = i % 3 == 0
+                    ? SPECIAL_POINTS[random.nextInt(SPECIAL_POINTS.length)]
+                    : new double[]{random.nextDouble(-90, 90), random.nextDouble(-180, 180)};
+            assertMatches(center[0], center[1], 1 + random.nextInt(20), random.nextDouble(100, 30_000));
+        }
+    }
+
+    @Test
+    void queriesOnCellEdgesMatchBruteForce() {
+        addDriversAround(-23.5, -46.6, 500, 0.05);
+
+        for (int i = 0; i < 200; i++) {
+            // Snap to a cell corner, or just either side of one
+            double latitude = Math.round(random.nextDouble(-23.55, -23.45) / CELL_SIZE) * CELL_SIZE + edgeOffset();
+            double longitude = Math.round(random.nextDouble(-46.65, -46.55) / CELL_SIZE) * CELL_SIZE + edgeOffset();
+            assertMatches(latitude, longitude, 1 + random.nextInt(10), random.nextDouble(50, 5_000));
+        }
+    }
+
+    @Test
+    void queriesAcrossTheAntimeridianMatchBruteForce() {
+        addDriversAround(0, 180, 300, 0.1);
+        addDriversAround(45, -180, 300, 0.1);
+
+        for (double longitude : new double[]{180, -180, 179.9999, -179.9999, 179.995, -179.995}) {
+            assertMatches(0, longitude, 10, 10_000);
+            assertMatches(45, longitude, 10, 10_000);
+            assertMatches(0.005, longitude, 50, 20_000);
+        }
+    }
+
+    @Test
+    void queriesAtThePolesMatchBruteForce() {
+        addDriversAround(90, 0, 300, 0.05);
+        addDriversAround(-90, 0, 300, 0.05);
+
+        for (double longitude = -180; longitude < 180; longitude += 45) {
+            assertMatches(90, longitude, 5, 3_000);
+            assertMatches(89.99, longitude, 20, 5_000);
+            assertMatches(-89.995, longitude, 20, 10_000);
+            assertMatches(-90, longitude, 500, 1_000);
+        }
+    }
+
+    private void assertMatches(double latitude, double longitude, int limit, double radiusMeters) {
+        List<DriverMatch> expected = bruteForce(latitude, longitude, radiusMeters);
+        String query = "query (" + latitude + ", " + longitude + ") radius " + radiusMeters;
+
+        List<DriverMatch> within = index.withinRadius(latitude, longitude, radiusMeters, AVAILABLE);
+        assertEquals(ids(expected), ids(within), query);
+
+        List<DriverMatch> nearest = index.nearest(latitude, longitude, limit, radiusMeters, AVAILABLE);
+        assertEquals(distances(expected.subList(0, Math.min(limit, expected.size()))), distances(nearest), query + " limit " + limit);
+    }
+
+    private List<DriverMatch> bruteForce(double latitude, double longitude, double radiusMeters) {
+        List<DriverMatch> matches = new ArrayList<>();
+        for (DriverPosition driver : drivers) {
+            double distance = GeoUtils.haversineMeters(latitude, longitude, driver.latitude(), driver.longitude());
+            if (AVAILABLE.contains(driver.availability()) && distance <= radiusMeters) {
+                matches.add(new DriverMatch(driver, distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(DriverMatch::distanceMeters));
+        return matches;
+    }
+
+    private void addRandomDrivers(int count, double minLat, double maxLat, double minLon, double maxLon) {
+        for (int i = 0; i < count; i++) {
+            add(random.nextDouble(minLat, maxLat), random.nextDouble(minLon, maxLon));
+        }
+    }
+
+    private void addDriversAround(double latitude, double longitude, int count, double spreadDegrees) {
+        for (int i = 0; i < count; i++) {
+            double lat = Math.clamp(latitude + random.nextDouble(-spreadDegrees, spreadDegrees), -90, 90);
+            double lon = longitude + random.nextDouble(-spreadDegrees, spreadDegrees);
+            add(lat, lon > 180 ? lon - 360 : lon < -180 ? lon + 360 : lon);
+        }
+    }
+
+    private void add(double latitude, double longitude) {
+        DriverAvailability availability = random.nextInt(4) == 0 ? DriverAvailability.ON_TRIP : DriverAvailability.AVAILABLE;
+        UUID driverId = UUID.randomUUID();
+        index.update(driverId, latitude, longitude, availability, System.currentTimeMillis());
+        drivers.add(index.get(driverId));
+    }
+
+    private double edgeOffset() {
+        return switch (random.nextInt(3)) {
+            case 0 -> 0;
+            case 1 -> 1e-9;
+            default -> -1e-9;
+        };
+    }
+
+    private static Set<UUID> ids(List<DriverMatch> matches) {
+        return matches.stream().map(match -> match.position().driverId()).collect(Collectors.toSet());
+    }
+
+    private static List<Double> distances(List<DriverMatch> matches) {
+        return matches.stream().map(DriverMatch::distanceMeters).toList();
+    }
+}
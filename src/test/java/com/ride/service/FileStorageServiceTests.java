@@ -0,0 +1,158 @@
+package com.ride.service;
+
+import com.ride.exception.ServiceOverloadedException;
+import com.ride.service.FileStorageService.StoredFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileStorageServiceTests {
+
+    @TempDir
+    private Path root;
+
+    @TempDir
+    private Path staging;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FileStorageService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void filesOfOneRequestAreStoredInParallelUnderTheirContentHash() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        service = new FileStorageService(storage, meterRegistry, 4, 4, staging.toString());
+        MultipartFile cnh = file("cnh.PDF", "cnh document");
+        MultipartFile car = file("car.jpg", "car document");
+
+        List<StoredFile> stored = service.uploadFiles(cnh, car);
+
+        assertEquals("documents/" + sha256("cnh document") + ".pdf", stored.get(0).key());
+        assertEquals("documents/" + sha256("car document") + ".jpg", stored.get(1).key());
+        assertEquals(storage.url(stored.get(0).key()), stored.get(0).url());
+        for (StoredFile file : stored) {
+            try (InputStream content = storage.get(file.key())) {
+                assertEquals(sha256(content.readAllBytes()), file.hash());
+            }
+        }
+        try (var staged = Files.list(staging)) {
+            assertEquals(0, staged.count(), "Staging files left behind");
+        }
+    }
+
+    @Test
+    void resubmittedContentIsDeduplicated() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        service = new FileStorageService(storage, meterRegistry, 2, 2, staging.toString());
+
+        StoredFile first = service.uploadFiles(file("a.png", "same")).getFirst();
+        StoredFile second = service.uploadFiles(file("b.png", "same")).getFirst();
+
+        assertEquals(first.key(), second.key());
+        assertEquals(1, meterRegistry.timer("storage.upload", "result", "stored").count());
+        assertEquals(1, meterRegistry.timer("storage.upload", "result", "deduplicated").count());
+    }
+
+    @Test
+    void failedUploadFailsTheRequestAndCleansItsStagingFile() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        service = new FileStorageService(storage, meterRegistry, 2, 2, staging.toString());
+        MultipartFile broken = new MockMultipartFile("file", "broken.pdf", "application/pdf", new byte[0]) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                throw new IOException("client went away");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> service.uploadFiles(file("ok.pdf", "fine"), broken));
+
+        assertEquals(1, meterRegistry.timer("storage.upload", "result", "failed").count());
+        try (var staged = Files.list(staging)) {
+            assertEquals(0, staged.count(), "Staging files left behind");
+        }
+    }
+
+    @Test
+    void saturatedPoolRejectsTheRequest() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        service = new FileStorageService(storage, meterRegistry, 1, 1, staging.toString());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MultipartFile blocking = new MockMultipartFile("file", "slow.pdf", "application/pdf", new byte[]{1}) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getInputStream();
+            }
+        };
+
+        // One upload occupies the only thread; of the next request, one file fits the queue
+        CompletableFuture<List<StoredFile>> pending = CompletableFuture.supplyAsync(() -> service.uploadFiles(blocking));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        try {
+            assertThrows(ServiceOverloadedException.class,
+                    () -> service.uploadFiles(file("queued.pdf", "queued"), file("rejected.pdf", "rejected")));
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1, pending.get(10, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void storedObjectMatchesTheUpload() throws Exception {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        service = new FileStorageService(storage, meterRegistry, 1, 1, staging.toString());
+        byte[] content = "x".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+
+        StoredFile stored = service.uploadFile(new MockMultipartFile("file", "big.txt", "text/plain", content));
+
+        try (InputStream read = storage.get(stored.key())) {
+            assertArrayEquals(content, read.readAllBytes());
+        }
+    }
+
+    private static MultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) throws NoSuchAlgorithmException {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,149 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.TransactionType;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.ledger.LedgerPostingDTO;
+import com.ride.repository.WalletRepository;
+import com.ride.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LedgerServiceTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void depositsAndWithdrawalsBalanceAgainstTheClearingWallet() {
+        Long wallet = createWallet(1);
+        String depositReason = uniqueReason();
+        String withdrawalReason = uniqueReason();
+
+        ledgerService.post(LedgerPostingDTO.deposit(wallet, amount("100.00"), depositReason));
+        ledgerService.post(LedgerPostingDTO.withdrawal(wallet, amount("30.00"), withdrawalReason));
+
+        assertBalanced(depositReason);
+        assertBalanced(withdrawalReason);
+        assertAmount("70.00", storedBalance(wallet));
+        Long clearing = jdbcTemplate.queryForObject("SELECT id FROM wallets WHERE type = 'CLEARING'", Long.class);
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE wallet_id = ? AND reason IN (?, ?)",
+                Integer.class, clearing, depositReason, withdrawalReason));
+    }
+
+    @Test
+    void overdraftIsRejectedAndRolledBack() {
+        Long wallet = createWallet(1);
+        ledgerService.post(LedgerPostingDTO.deposit(wallet, amount("10.00"), uniqueReason()));
+        String reason = uniqueReason();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.post(LedgerPostingDTO.withdrawal(wallet, amount("50.00"), reason)));
+
+        assertEquals("Insufficient balance in wallet: " + wallet, error.getMessage());
+        assertAmount("10.00", storedBalance(wallet));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE reason = ?", Integer.class, reason));
+    }
+
+    @Test
+    void postingsAreNettedPerWalletBeforeTheOverdraftCheck() {
+        Long payer = createWallet(1);
+        Long payee = createWallet(1);
+        ledgerService.post(LedgerPostingDTO.deposit(payer, amount("100.00"), uniqueReason()));
+
+        // payee could not pay 20 on its own, but nets to +10 within the batch
+        ledgerService.postAll(List.of(
+                LedgerPostingDTO.transfer(TransactionType.TRANSFER, payee, payer, amount("20.00"), uniqueReason()),
+                LedgerPostingDTO.transfer(TransactionType.TRANSFER, payer, payee, amount("30.00"), uniqueReason())));
+
+        assertAmount("90.00", storedBalance(payer));
+        assertAmount("10.00", storedBalance(payee));
+    }
+
+    @Test
+    void debitOfShardedWalletCompactsShardsAndRetries() {
+        Long payer = createWallet(1);
+        Long sharded = createWallet(4);
+        ledgerService.post(LedgerPostingDTO.deposit(payer, amount("100.00"), uniqueReason()));
+        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.PAYMENT, payer, sharded, amount("100.00"), uniqueReason()));
+        assertAmount("0.00", baseBalance(sharded));
+
+        ledgerService.post(LedgerPostingDTO.withdrawal(sharded, amount("60.00"), uniqueReason()));
+
+        assertAmount("40.00", baseBalance(sharded));
+        assertAmount("40.00", storedBalance(sharded));
+    }
+
+    @Test
+    void missingWalletIsReportedAsNotFound() {
+        assertThrows(EntityNotFoundException.class,
+                () -> ledgerService.post(LedgerPostingDTO.deposit(Long.MAX_VALUE, amount("1.00"), uniqueReason())));
+    }
+
+    @Test
+    void invalidPostingsAreRejectedBeforeWriting() {
+        Long wallet = createWallet(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.post(LedgerPostingDTO.deposit(wallet, amount("-1.00"), uniqueReason())));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.post(LedgerPostingDTO.transfer(TransactionType.TRANSFER, wallet, wallet,
+                        amount("1.00"), uniqueReason())));
+    }
+
+    private Long createWallet(int shardCount) {
+        return walletRepository.save(Wallet.builder()
+                .type(WalletType.PASSENGER)
+                .balance(BigDecimal.ZERO)
+                .shardCount(shardCount)
+                .build()).getId();
+    }
+
+    private void assertBalanced(String reason) {
+        Map<String, Object> legs = jdbcTemplate.queryForMap(
+                "SELECT coalesce(sum(amount), 0) AS total, count(*) AS legs FROM transactions WHERE reason = ?", reason);
+        assertAmount("0.00", (BigDecimal) legs.get("total"));
+        assertEquals(2L, ((Number) legs.get("legs")).longValue());
+    }
+
+    private BigDecimal baseBalance(Long walletId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+    }
+
+    private BigDecimal storedBalance(Long walletId) {
+        return jdbcTemplate.queryForObject("""
+                SELECT w.balance + coalesce((SELECT sum(s.balance) FROM wallet_shards s WHERE s.wallet_id = w.id), 0)
+                  FROM wallets w WHERE w.id = ?
+                """, BigDecimal.class, walletId);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+
+    private static String uniqueReason() {
+        return "ledger-test-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ride.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class LocalObjectStorageTests {
+
+    @TempDir
+    private Path root;
+
+    @TempDir
+    private Path staging;
+
+    @Test
+    void putMovesTheStagedFileAndGetStreamsItBack() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files/");
+        byte[] content = randomBytes(3 * 1024 * 1024 + 17);
+        Path staged = Files.write(staging.resolve("upload.tmp"), content);
+
+        storage.put("documents/abc.pdf", staged, "application/pdf");
+
+        assertFalse(Files.exists(staged));
+        assertTrue(storage.exists("documents/abc.pdf"));
+        try (InputStream stored = storage.get("documents/abc.pdf")) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+        assertEquals("http://localhost:8080/files/documents/abc.pdf", storage.url("documents/abc.pdf"));
+    }
+
+    @Test
+    void putReplacesAnExistingObject() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        storage.put("documents/a.bin", Files.write(staging.resolve("first.tmp"), new byte[]{1}), "application/octet-stream");
+        storage.put("documents/a.bin", Files.write(staging.resolve("second.tmp"), new byte[]{2, 3}), "application/octet-stream");
+
+        try (InputStream stored = storage.get("documents/a.bin")) {
+            assertArrayEquals(new byte[]{2, 3}, stored.readAllBytes());
+        }
+    }
+
+    // Staging on another file system cannot be moved atomically and is streamed over instead
+    @Test
+    void fileStagedOnAnotherFileSystemIsStreamedIntoPlace() throws IOException {
+        Path otherFileSystem = Path.of("/dev/shm");
+        assumeFalse(!Files.isDirectory(otherFileSystem) || Files.getFileStore(otherFileSystem).equals(Files.getFileStore(root)),
+                "No second file system to stage on");
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+        byte[] content = randomBytes(9 * 1024 * 1024);
+        Path staged = Files.createTempFile(otherFileSystem, "ride-upload-", ".tmp");
+        Files.write(staged, content);
+
+        try {
+            storage.put("documents/large.bin", staged, "application/octet-stream");
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+
+        try (InputStream stored = storage.get("documents/large.bin")) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+        try (var leftovers = Files.list(root.resolve("documents"))) {
+            assertEquals(1, leftovers.count(), "Temp file left next to the object");
+        }
+    }
+
+    @Test
+    void keysOutsideTheRootAreRejected() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root.toString(), "http://localhost:8080/files");
+
+        assertThrows(IllegalArgumentException.class, () -> storage.get("../outside.txt"));
+        assertThrows(IllegalArgumentException.class, () -> storage.exists("documents/../../outside.txt"));
+        assertThrows(IllegalArgumentException.class, () -> storage.exists("."));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
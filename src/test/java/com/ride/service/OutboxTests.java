@@ -0,0 +1,161 @@
+package com.ride.service;
+
+import com.ride.domain.User;
+import com.ride.domain.enums.UserRole;
+import com.ride.dto.event.OutboxMessageDTO;
+import com.ride.dto.user.UserRequestDTO;
+import com.ride.repository.OutboxEventRepository;
+import com.ride.support.Cpfs;
+import com.ride.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTests extends PostgresIntegrationTest {
+
+    private static final String AGGREGATE = "OutboxTest";
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordingRequiresTheCallersTransaction() {
+        String aggregateId = UUID.randomUUID().toString();
+
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxService.record(AGGREGATE, aggregateId, new TestEvent(1)));
+
+        assertEquals(0, pending(aggregateId));
+    }
+
+    @Test
+    void rolledBackTransactionLeavesNoEvent() {
+        String aggregateId = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.record(AGGREGATE, aggregateId, new TestEvent(1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, pending(aggregateId));
+    }
+
+    @Test
+    void failedPublishLeavesTheBatchInTheOutbox() {
+        String aggregateId = UUID.randomUUID().toString();
+        recordEvents(aggregateId, 3);
+
+        relay(messages -> {
+            throw new IllegalStateException("broker unavailable");
+        }).relay();
+
+        assertEquals(3, pending(aggregateId));
+    }
+
+    @Test
+    void concurrentRelaysDeliverEveryEventOnce() throws Exception {
+        String aggregateId = UUID.randomUUID().toString();
+        recordEvents(aggregateId, 300);
+
+        Set<Long> delivered = ConcurrentHashMap.newKeySet();
+        List<Long> duplicates = Collections.synchronizedList(new ArrayList<>());
+        OutboxPublisher publisher = messages -> {
+            for (OutboxMessageDTO message : messages) {
+                if (!delivered.add(message.id())) {
+                    duplicates.add(message.id());
+                }
+            }
+            // Keep the batch locked long enough for the other relay to run into it
+            sleep(5);
+        };
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> relays = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                OutboxRelay relay = relay(publisher);
+                relays.add(executor.submit(() -> {
+                    for (int run = 0; run < 20 && pending(aggregateId) > 0; run++) {
+                        relay.relay();
+                    }
+                }));
+            }
+            for (Future<?> relay : relays) {
+                relay.get();
+            }
+        }
+
+        assertEquals(List.of(), duplicates);
+        assertEquals(0, pending(aggregateId));
+    }
+
+    @Test
+    void registrationEventCarriesNoCpf() {
+        String cpf = Cpfs.random();
+        User user = userRegistrationService.register(new UserRequestDTO("Outbox", null, cpf, "secret", null), UserRole.PASSENGER);
+
+        String payload = jdbcTemplate.queryForObject("""
+                SELECT payload::text FROM outbox_events WHERE aggregate_id = ? AND event_type = 'UserRegisteredEvent'
+                """, String.class, user.getId().toString());
+
+        assertTrue(payload.contains(user.getId().toString()));
+        assertFalse(payload.contains(cpf));
+    }
+
+    private OutboxRelay relay(OutboxPublisher publisher) {
+        return new OutboxRelay(outboxEventRepository, publisher, transactionTemplate, new SimpleMeterRegistry(), 20, 50);
+    }
+
+    private void recordEvents(String aggregateId, int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                outboxService.record(AGGREGATE, aggregateId, new TestEvent(i));
+            }
+        });
+    }
+
+    private int pending(String aggregateId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, aggregateId);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record TestEvent(int sequence) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.ride.service;
+
+import com.ride.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTests {
+
+    private static final int STRENGTH = 10;
+
+    private final PasswordHashingService service = new PasswordHashingService(new BCryptPasswordEncoder(STRENGTH),
+            new SimpleMeterRegistry(), 1, 1, Duration.ofSeconds(5), STRENGTH);
+
+    @Test
+    void currentIdAtCurrentCostIsKept() {
+        assertFalse(service.needsRehash("{bcrypt}$2a$10$abcdefghijklmnopqrstuu"));
+        assertFalse(service.needsRehash(null));
+    }
+
+    @Test
+    void legacyUnprefixedHashIsRehashed() {
+        assertTrue(service.needsRehash("$2a$10$abcdefghijklmnopqrstuu"));
+    }
+
+    @Test
+    void otherCostIsRehashed() {
+        assertTrue(service.needsRehash("{bcrypt}$2a$08$abcdefghijklmnopqrstuu"));
+        assertTrue(service.needsRehash("{bcrypt}$2a$12$abcdefghijklmnopqrstuu"));
+    }
+
+    @Test
+    void otherIdIsRehashed() {
+        assertTrue(service.needsRehash("{noop}password"));
+        assertTrue(service.needsRehash("{pbkdf2}5d923b44a6d129f3ddf3e3c8d29412723dcbde72445e8ef6bf3b508fbf17fa4ed4d6b99ca763d8dc"));
+    }
+
+    @Test
+    void saturatedPoolRejectsWithServiceUnavailable() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingService saturated = new PasswordHashingService(encoder, meterRegistry, 1, 1, Duration.ofSeconds(10), STRENGTH);
+        try {
+            // One hash occupies the only thread and one waits in the only queue slot
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> saturated.encode("running"));
+            assertTrue(encoder.started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> saturated.encode("queued"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.get("password.hashing.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+
+            ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class, () -> saturated.encode("rejected"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    AnnotatedElementUtils.findMergedAnnotation(rejected.getClass(), ResponseStatus.class).value());
+            assertEquals(1, meterRegistry.counter("password.hashing.rejected").count());
+
+            encoder.release.countDown();
+            assertEquals("encoded:running", running.get(10, TimeUnit.SECONDS));
+            assertEquals("encoded:queued", queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            encoder.release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void hashingPastTheTimeoutFailsAndFreesTheThread() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingService slow = new PasswordHashingService(encoder, meterRegistry, 1, 1, Duration.ofMillis(200), STRENGTH);
+        try {
+            long start = System.nanoTime();
+            assertThrows(ServiceOverloadedException.class, () -> slow.matches("password", "encoded:password"));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsedMillis >= 200 && elapsedMillis < 5000, "Waited " + elapsedMillis + " ms");
+            assertEquals(1, meterRegistry.counter("password.hashing.rejected").count());
+            assertTrue(encoder.interrupted.await(10, TimeUnit.SECONDS), "The timed out hash must be cancelled");
+
+            encoder.release.countDown();
+            assertEquals("encoded:next", slow.encode("next"));
+        } finally {
+            encoder.release.countDown();
+            slow.shutdown();
+        }
+    }
+
+    // Blocks every hash until released; a cancelled hash reports its interrupt
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Hashing cancelled", e);
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
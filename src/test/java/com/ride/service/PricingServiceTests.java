@@ -0,0 +1,62 @@
+package com.ride.service;
+
+import com.ride.service.ZoneMarketState.ZoneSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PricingServiceTests {
+
+    // threshold 1.0, sensitivity 0.5, max 3.0, recent requests weigh 0.2
+    private final PricingService pricingService = new PricingService(null, new SimpleMeterRegistry(),
+            new BigDecimal("5.00"), new BigDecimal("1.80"), new BigDecimal("0.35"), new BigDecimal("9.00"), "BRL",
+            1.3, 25, 0.2, 1.0, 0.5, 3.0, Duration.ofMinutes(2));
+
+    @Test
+    void noSurgeAtOrBelowThreshold() {
+        assertSurge("1.0", 0, 0, 0);
+        assertSurge("1.0", 0, 0, 10);
+        assertSurge("1.0", 5, 0, 5);
+    }
+
+    @Test
+    void surgeGrowsLinearlyAboveThreshold() {
+        assertSurge("1.5", 4, 0, 2);
+        assertSurge("2.0", 6, 0, 2);
+    }
+
+    @Test
+    void recentRequestsAreWeighted() {
+        assertSurge("1.5", 0, 10, 1);
+    }
+
+    @Test
+    void surgeIsClampedToMax() {
+        assertSurge("3.0", 100, 0, 1);
+        assertSurge("3.0", 0, 1_000, 0);
+    }
+
+    @Test
+    void zoneWithoutDriversCountsAsOne() {
+        assertSurge("1.5", 2, 0, 0);
+    }
+
+    @Test
+    void surgeIsRoundedHalfUpToTenths() {
+        // 1 + 0.5 * (3/2 - 1) = 1.25
+        assertSurge("1.3", 3, 0, 2);
+        // 1 + 0.5 * (37/25 - 1) = 1.24
+        assertSurge("1.2", 37, 0, 25);
+        // 1 + 0.5 * (31/20 - 1) = 1.275
+        assertSurge("1.3", 31, 0, 20);
+    }
+
+    private void assertSurge(String expected, long openRequests, long recentRequests, long availableDrivers) {
+        BigDecimal surge = pricingService.surgeMultiplier(new ZoneSnapshot(openRequests, recentRequests, availableDrivers));
+        assertEquals(0, new BigDecimal(expected).compareTo(surge), "expected " + expected + " but was " + surge);
+    }
+}
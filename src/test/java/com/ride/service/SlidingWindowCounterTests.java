@@ -0,0 +1,73 @@
+package com.ride.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlidingWindowCounterTests {
+
+    // 10 buckets of one second
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+    private static final int BUCKETS = 10;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, BUCKETS, clock::get);
+
+    @Test
+    void countsInOneBucketAddUp() {
+        counter.increment();
+        counter.add(4);
+        advance(999);
+        counter.increment();
+
+        assertEquals(6, counter.sum());
+    }
+
+    @Test
+    void windowSumsEveryBucketUntilItRotatesOut() {
+        long start = clock.get() - clock.get() % 1000;
+        clock.set(start);
+        for (int second = 0; second < BUCKETS; second++) {
+            counter.add(second + 1);
+            advance(1000);
+        }
+        clock.set(start + 9_999);
+        assertEquals(55, counter.sum());
+
+        // the first bucket (1) leaves the window, then the second (2)
+        advance(1);
+        assertEquals(54, counter.sum());
+        advance(1000);
+        assertEquals(52, counter.sum());
+    }
+
+    @Test
+    void bucketFromAnOlderLapIsResetByTheNextWrite() {
+        counter.add(5);
+
+        advance(WINDOW.toMillis());
+        assertEquals(0, counter.sum());
+
+        counter.add(1);
+        assertEquals(1, counter.sum());
+    }
+
+    @Test
+    void bucketsSkippedWhileIdleAreNotCounted() {
+        counter.add(3);
+        advance(3_000);
+        counter.add(2);
+
+        advance(WINDOW.toMillis() * 7 + 500);
+        counter.add(1);
+
+        assertEquals(1, counter.sum());
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(millis);
+    }
+}
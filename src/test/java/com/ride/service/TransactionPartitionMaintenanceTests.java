@@ -0,0 +1,108 @@
+package com.ride.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.WalletType;
+import com.ride.repository.WalletRepository;
+import com.ride.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionPartitionMaintenanceTests extends PostgresIntegrationTest {
+
+    private static final int MONTHS_AHEAD = 6;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rerunsCreateNothingAndPostingsLandInTheirMonth() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(jdbcTemplate, meterRegistry, MONTHS_AHEAD);
+
+        maintenance.createFuturePartitions();
+        double created = meterRegistry.counter("ledger.partitions.created").count();
+        maintenance.createFuturePartitions();
+
+        assertEquals(created, meterRegistry.counter("ledger.partitions.created").count());
+        YearMonth current = YearMonth.now();
+        for (int month = 0; month <= MONTHS_AHEAD; month++) {
+            String name = "transactions_" + current.plusMonths(month).format(SUFFIX);
+            assertEquals("transactions", jdbcTemplate.queryForObject(
+                    "SELECT inhparent::regclass::text FROM pg_inherits WHERE inhrelid = to_regclass(?)", String.class, name));
+        }
+
+        YearMonth last = current.plusMonths(MONTHS_AHEAD);
+        Long wallet = createWallet();
+        long firstInstant = insertTransaction(wallet, last.atDay(1).atStartOfDay());
+        long lastInstant = insertTransaction(wallet, last.atEndOfMonth().atTime(23, 59, 59));
+        try {
+            assertEquals("transactions_" + last.format(SUFFIX), partitionOf(firstInstant));
+            assertEquals("transactions_" + last.format(SUFFIX), partitionOf(lastInstant));
+        } finally {
+            jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id = ?", wallet);
+        }
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionAreReported() {
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(jdbcTemplate, new SimpleMeterRegistry(), 0);
+        Logger logger = (Logger) LoggerFactory.getLogger(TransactionPartitionMaintenance.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        Long wallet = createWallet();
+        long unpartitioned = insertTransaction(wallet, LocalDateTime.of(2200, 1, 1, 0, 0));
+        try {
+            assertEquals("transactions_default", partitionOf(unpartitioned));
+
+            maintenance.createFuturePartitions();
+
+            assertTrue(appender.list.stream().anyMatch(event -> event.getLevel() == Level.WARN
+                    && event.getFormattedMessage().contains("transactions_default")));
+        } finally {
+            logger.detachAppender(appender);
+            jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id = ?", wallet);
+        }
+    }
+
+    private Long createWallet() {
+        return walletRepository.save(Wallet.builder()
+                .type(WalletType.PASSENGER)
+                .balance(BigDecimal.ZERO)
+                .shardCount(1)
+                .build()).getId();
+    }
+
+    private long insertTransaction(Long walletId, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO transactions (wallet_id, type, amount, reason, created_at)
+                VALUES (?, 'DEPOSIT', 1.00, 'partition-test', ?) RETURNING id
+                """, Long.class, walletId, Timestamp.valueOf(createdAt));
+    }
+
+    private String partitionOf(long transactionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM transactions WHERE id = ?", String.class, transactionId);
+    }
+}
@@ -0,0 +1,106 @@
+package com.ride.service;
+
+import com.ride.domain.enums.UserRole;
+import com.ride.dto.user.UserImportResultDTO;
+import com.ride.dto.user.UserRequestDTO;
+import com.ride.repository.UserRepository;
+import com.ride.support.Cpfs;
+import com.ride.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserImportServiceTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rowCollidingInTheDatabaseFailsAloneAndTheRestIsImported() throws Exception {
+        String colliding = Cpfs.random();
+        String first = Cpfs.random();
+        String second = Cpfs.random();
+        String csv = """
+                role,name,cpf,password
+                PASSENGER,First,%s,secret-1
+                PASSENGER,Colliding,%s,secret-2
+                PASSENGER,Second,%s,secret-3
+                """.formatted(first, colliding, second);
+
+        // Another registration of the same CPF is in flight: the duplicate pre-check can't
+        // see it, so the chunk insert blocks on it and fails once it commits.
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> registration = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAndFlush(userRegistrationService.newUser(
+                            new UserRequestDTO("Existing", null, colliding, null, null), UserRole.PASSENGER, "{noop}x"));
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<UserImportResultDTO> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return userImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        awaitBlockedOnLock();
+        commit.countDown();
+        registration.get(10, TimeUnit.SECONDS);
+
+        UserImportResultDTO imported = result.get(30, TimeUnit.SECONDS);
+        assertEquals(2, imported.imported());
+        assertEquals(1, imported.failed());
+        assertEquals(colliding, imported.errors().getFirst().cpf());
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE cpf IN (?, ?, ?)", Long.class, first, colliding, second));
+        assertEquals(2L, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM wallets w JOIN users u ON u.id = w.user_id WHERE u.cpf IN (?, ?)
+                """, Long.class, first, second));
+    }
+
+    private void awaitBlockedOnLock() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'
+                """, Long.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "Import never reached the conflicting insert");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ride.service;
+
+import com.ride.domain.enums.UserRole;
+import com.ride.dto.user.UserRequestDTO;
+import com.ride.support.Cpfs;
+import com.ride.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserRegistrationServiceTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void knownCpfIsRejectedByItsConstraint() {
+        String cpf = Cpfs.random();
+        userRegistrationService.register(request(cpf, null), UserRole.PASSENGER);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> userRegistrationService.register(request(cpf, null), UserRole.PASSENGER));
+
+        assertEquals("User already exists with CPF: " + cpf, error.getMessage());
+        assertEquals(1L, walletCount(cpf));
+    }
+
+    @Test
+    void knownEmailIsRejectedByItsConstraint() {
+        String email = UUID.randomUUID() + "@example.com";
+        userRegistrationService.register(request(Cpfs.random(), email), UserRole.PASSENGER);
+        String cpf = Cpfs.random();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> userRegistrationService.register(request(cpf, email), UserRole.PASSENGER));
+
+        assertEquals("User already exists with email: " + email, error.getMessage());
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE cpf = ?", Long.class, cpf));
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneCpfCreateOneUser() throws Exception {
+        String cpf = Cpfs.random();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> attempts = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return userRegistrationService.register(request(cpf, null), UserRole.PASSENGER);
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<?> attempt : attempts) {
+                try {
+                    attempt.get(30, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    IllegalArgumentException error = assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                    assertEquals("User already exists with CPF: " + cpf, error.getMessage());
+                }
+            }
+            assertEquals(1, succeeded);
+        }
+
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE cpf = ?", Long.class, cpf));
+        assertEquals(1L, walletCount(cpf));
+    }
+
+    private long walletCount(String cpf) {
+        return jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM wallets w JOIN users u ON u.id = w.user_id WHERE u.cpf = ?
+                """, Long.class, cpf);
+    }
+
+    private static UserRequestDTO request(String cpf, String email) {
+        return new UserRequestDTO("User " + cpf, email, cpf, "secret", null);
+    }
+}
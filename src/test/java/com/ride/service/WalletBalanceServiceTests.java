@@ -0,0 +1,180 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.WalletType;
+import com.ride.repository.WalletRepository;
+import com.ride.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletBalanceServiceTests extends PostgresIntegrationTest {
+
+    private static final String GRACE = "PT5M";
+
+    @Autowired
+    private WalletBalanceService walletBalanceService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void snapshotOnlyCoversRowsOlderThanTheGracePeriod() {
+        Long wallet = createWallet();
+        long settled = insertTransaction(wallet, "10.00", LocalDateTime.now().minusMinutes(10));
+        long recent = insertTransaction(wallet, "5.00", LocalDateTime.now());
+
+        walletBalanceService.advanceSnapshots();
+
+        assertSnapshot(wallet, "10.00", settled);
+
+        jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(10)), recent);
+        walletBalanceService.advanceSnapshots();
+
+        assertSnapshot(wallet, "15.00", recent);
+    }
+
+    @Test
+    void rowStampedBeforeTheSnapshotButCommittedAfterIsCounted() {
+        Long wallet = createWallet();
+        LocalDateTime covered = LocalDateTime.now().minusMinutes(10);
+        insertTransaction(wallet, "10.00", covered);
+        walletBalanceService.advanceSnapshots();
+
+        // A posting stamped before the covered row but given a later id, within the grace
+        long late = insertTransaction(wallet, "5.00", covered.minusMinutes(2));
+        walletBalanceService.advanceSnapshots();
+
+        assertSnapshot(wallet, "15.00", late);
+    }
+
+    @Test
+    void slowerAdvanceNeverMovesTheSnapshotBack() throws Exception {
+        Long wallet = createWallet();
+        insertTransaction(wallet, "10.00", LocalDateTime.now().minusMinutes(20));
+        long newer = insertTransaction(wallet, "5.00", LocalDateTime.now().minusMinutes(10));
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp beforeNewer = Timestamp.valueOf(LocalDateTime.now().minusMinutes(15));
+
+        // One advance covers both rows and holds its snapshot row; a second one, computed
+        // from the same empty snapshot with an earlier cutoff, waits on it and must skip.
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement advance = connection.prepareStatement(advanceSql())) {
+                advance.setTimestamp(1, now);
+                advance.setString(2, GRACE);
+                advance.setTimestamp(3, now);
+                advance.setString(4, GRACE);
+                advance.setLong(5, wallet - 1);
+                advance.setLong(6, wallet);
+                assertEquals(1, advance.executeUpdate());
+            }
+
+            CompletableFuture<Integer> stale = CompletableFuture.supplyAsync(() ->
+                    jdbcTemplate.update(advanceSql(), now, GRACE, beforeNewer, GRACE, wallet - 1, wallet));
+            awaitBlockedOnLock();
+            connection.commit();
+
+            assertEquals(0, stale.get(10, TimeUnit.SECONDS));
+        }
+
+        assertSnapshot(wallet, "15.00", newer);
+    }
+
+    @Test
+    void advanceIsSkippedWhileAnotherInstanceHoldsTheLock() throws Exception {
+        Long wallet = createWallet();
+        insertTransaction(wallet, "10.00", LocalDateTime.now().minusMinutes(10));
+
+        // Pooled connections outlive close(), so the session lock is released explicitly
+        try (Connection other = dataSource.getConnection()) {
+            advisoryLock(other, "SELECT pg_advisory_lock(?)");
+            try {
+                walletBalanceService.advanceSnapshots();
+                assertEquals(0, snapshotCount(wallet));
+            } finally {
+                advisoryLock(other, "SELECT pg_advisory_unlock(?)");
+            }
+        }
+
+        walletBalanceService.advanceSnapshots();
+        assertEquals(1, snapshotCount(wallet));
+    }
+
+    private Long createWallet() {
+        return walletRepository.save(Wallet.builder()
+                .type(WalletType.PASSENGER)
+                .balance(BigDecimal.ZERO)
+                .shardCount(1)
+                .build()).getId();
+    }
+
+    private long insertTransaction(Long walletId, String amount, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO transactions (wallet_id, type, amount, reason, created_at)
+                VALUES (?, 'DEPOSIT', ?, 'snapshot-test', ?) RETURNING id
+                """, Long.class, walletId, new BigDecimal(amount), Timestamp.valueOf(createdAt.truncatedTo(ChronoUnit.MICROS)));
+    }
+
+    private void assertSnapshot(Long walletId, String balance, long lastTransactionId) {
+        Map<String, Object> snapshot = jdbcTemplate.queryForMap("""
+                SELECT s.balance, s.last_transaction_id, s.last_transaction_created_at = t.created_at AS created_at_matches
+                  FROM wallet_balance_snapshots s
+                  JOIN transactions t ON t.id = s.last_transaction_id
+                 WHERE s.wallet_id = ?
+                """, walletId);
+        assertEquals(0, new BigDecimal(balance).compareTo((BigDecimal) snapshot.get("balance")));
+        assertEquals(lastTransactionId, ((Number) snapshot.get("last_transaction_id")).longValue());
+        assertEquals(Boolean.TRUE, snapshot.get("created_at_matches"));
+    }
+
+    private int snapshotCount(Long walletId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM wallet_balance_snapshots WHERE wallet_id = ?", Integer.class, walletId);
+    }
+
+    private static void advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, WalletBalanceService.SNAPSHOT_LOCK_KEY);
+            statement.executeQuery().close();
+        }
+    }
+
+    private void awaitBlockedOnLock() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'
+                """, Long.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "Second advance never waited on the snapshot row");
+            Thread.sleep(20);
+        }
+    }
+
+    private static String advanceSql() {
+        return (String) ReflectionTestUtils.getField(WalletBalanceService.class, "ADVANCE_SQL");
+    }
+}
@@ -0,0 +1,179 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.ledger.LedgerPostingDTO;
+import com.ride.repository.WalletRepository;
+import com.ride.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletReconciliationJobTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerJobLock ledgerJobLock;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void consistentWalletRecordsNoDrift() {
+        Long wallet = walletWithDeposit("10.00");
+
+        reconcileAll();
+
+        assertEquals(0, driftCount(wallet));
+    }
+
+    @Test
+    void storedBalanceOffTheLedgerIsRecorded() {
+        Long wallet = walletWithDeposit("10.00");
+        jdbcTemplate.update("UPDATE wallets SET balance = balance + 1 WHERE id = ?", wallet);
+
+        reconcileAll();
+
+        Map<String, Object> drift = onlyDrift(wallet);
+        assertAmount("11.00", drift.get("stored_balance"));
+        assertAmount("10.00", drift.get("ledger_balance"));
+        assertNull(drift.get("snapshot_balance"));
+    }
+
+    @Test
+    void snapshotOffTheRowsItCoversIsRecorded() {
+        Long wallet = walletWithDeposit("10.00");
+        jdbcTemplate.update("""
+                INSERT INTO wallet_balance_snapshots (wallet_id, balance, last_transaction_id, last_transaction_created_at, taken_at)
+                SELECT wallet_id, 12.00, id, created_at, now()
+                  FROM transactions WHERE wallet_id = ? ORDER BY id DESC LIMIT 1
+                """, wallet);
+
+        reconcileAll();
+
+        Map<String, Object> drift = onlyDrift(wallet);
+        assertAmount("12.00", drift.get("snapshot_balance"));
+        assertAmount("10.00", drift.get("snapshot_expected"));
+    }
+
+    @Test
+    void verifiedRowsAreNotSummedAgainUntilTheCheckpointIsCleared() {
+        Long wallet = walletWithDeposit("10.00");
+        snapshotLatest(wallet, "10.00");
+        reconcileAll();
+        assertEquals(lastTransactionId(wallet), verifiedTransactionId(wallet));
+
+        // Rewriting a verified row goes unnoticed by the incremental check...
+        jdbcTemplate.update("UPDATE transactions SET amount = 9.00 WHERE wallet_id = ?", wallet);
+        reconcileAll();
+        assertEquals(0, driftCount(wallet));
+
+        // ...and is caught once the snapshot is verified from the start again
+        jdbcTemplate.update("UPDATE wallet_balance_snapshots SET verified_transaction_id = NULL, verified_balance = NULL,"
+                + " verified_transaction_created_at = NULL WHERE wallet_id = ?", wallet);
+        reconcileAll();
+        Map<String, Object> drift = onlyDrift(wallet);
+        assertAmount("10.00", drift.get("snapshot_balance"));
+        assertAmount("9.00", drift.get("snapshot_expected"));
+    }
+
+    @Test
+    void advancedSnapshotIsVerifiedOverTheNewRowsOnly() {
+        Long wallet = walletWithDeposit("10.00");
+        snapshotLatest(wallet, "10.00");
+        reconcileAll();
+        Long verifiedThrough = verifiedTransactionId(wallet);
+
+        ledgerService.post(LedgerPostingDTO.deposit(wallet, new BigDecimal("5.00"), "reconciliation-test-" + Instant.now()));
+        snapshotLatest(wallet, "15.00");
+        reconcileAll();
+        assertEquals(0, driftCount(wallet));
+        assertTrue(verifiedTransactionId(wallet) > verifiedThrough);
+
+        ledgerService.post(LedgerPostingDTO.deposit(wallet, new BigDecimal("1.00"), "reconciliation-test-" + Instant.now()));
+        snapshotLatest(wallet, "17.00");
+        Long lastVerified = verifiedTransactionId(wallet);
+        reconcileAll();
+        Map<String, Object> drift = onlyDrift(wallet);
+        assertAmount("17.00", drift.get("snapshot_balance"));
+        assertAmount("16.00", drift.get("snapshot_expected"));
+        assertEquals(lastVerified, verifiedTransactionId(wallet), "A drifted snapshot must keep its checkpoint");
+    }
+
+    @Test
+    void runIsSkippedWhileAnotherInstanceHoldsTheLock() {
+        Long wallet = walletWithDeposit("10.00");
+        jdbcTemplate.update("UPDATE wallets SET balance = balance + 1 WHERE id = ?", wallet);
+
+        ledgerJobLock.runExclusively(WalletReconciliationJob.RECONCILIATION_LOCK_KEY, jdbc -> reconcileAll());
+        assertEquals(0, driftCount(wallet));
+
+        reconcileAll();
+        assertEquals(1, driftCount(wallet));
+    }
+
+    // A job of its own, so the whole table is covered in one run starting from id 0
+    private void reconcileAll() {
+        new WalletReconciliationJob(ledgerJobLock, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000, Integer.MAX_VALUE).reconcile();
+    }
+
+    private Long walletWithDeposit(String amount) {
+        Long wallet = walletRepository.save(Wallet.builder()
+                .type(WalletType.PASSENGER)
+                .balance(BigDecimal.ZERO)
+                .shardCount(1)
+                .build()).getId();
+        ledgerService.post(LedgerPostingDTO.deposit(wallet, new BigDecimal(amount), "reconciliation-test-" + Instant.now()));
+        return wallet;
+    }
+
+    // Points the wallet's snapshot at its latest transaction, as an advance would
+    private void snapshotLatest(Long walletId, String balance) {
+        jdbcTemplate.update("""
+                INSERT INTO wallet_balance_snapshots (wallet_id, balance, last_transaction_id, last_transaction_created_at, taken_at)
+                SELECT wallet_id, ?, id, created_at, now()
+                  FROM transactions WHERE wallet_id = ? ORDER BY id DESC LIMIT 1
+                    ON CONFLICT (wallet_id) DO UPDATE
+                   SET balance = EXCLUDED.balance, last_transaction_id = EXCLUDED.last_transaction_id,
+                       last_transaction_created_at = EXCLUDED.last_transaction_created_at
+                """, new BigDecimal(balance), walletId);
+    }
+
+    private Long lastTransactionId(Long walletId) {
+        return jdbcTemplate.queryForObject("SELECT max(id) FROM transactions WHERE wallet_id = ?", Long.class, walletId);
+    }
+
+    private Long verifiedTransactionId(Long walletId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT verified_transaction_id FROM wallet_balance_snapshots WHERE wallet_id = ?", Long.class, walletId);
+    }
+
+    private int driftCount(Long walletId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM wallet_balance_drift WHERE wallet_id = ?", Integer.class, walletId);
+    }
+
+    private Map<String, Object> onlyDrift(Long walletId) {
+        assertEquals(1, driftCount(walletId));
+        return jdbcTemplate.queryForMap("SELECT * FROM wallet_balance_drift WHERE wallet_id = ?", walletId);
+    }
+
+    private static void assertAmount(String expected, Object actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo((BigDecimal) actual), "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,161 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.TransactionType;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.ledger.LedgerPostingDTO;
+import com.ride.dto.wallet.WalletEarningsDTO;
+import com.ride.dto.wallet.WalletEarningsPeriodDTO;
+import com.ride.repository.WalletRepository;
+import com.ride.service.WalletRollupService.EarningsGranularity;
+import com.ride.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletRollupServiceTests extends PostgresIntegrationTest {
+
+    // (wallet, period, type) totals of the rollup rows, summed over shards, and of the raw rows
+    private static final String ROLLUP_TOTALS_SQL = """
+            SELECT wallet_id, %1$s AS period, type, sum(credits)::numeric(19, 2), sum(debits)::numeric(19, 2),
+                   sum(transaction_count)::bigint
+              FROM %2$s
+             WHERE wallet_id IN (?, ?)
+             GROUP BY wallet_id, %1$s, type
+            """;
+
+    private static final String RAW_TOTALS_SQL = """
+            SELECT wallet_id, %s AS period, type,
+                   coalesce(sum(amount) FILTER (WHERE amount >= 0), 0)::numeric(19, 2),
+                   coalesce(-sum(amount) FILTER (WHERE amount < 0), 0)::numeric(19, 2),
+                   count(*)
+              FROM transactions
+             WHERE wallet_id IN (?, ?)
+             GROUP BY 1, 2, 3
+            """;
+
+    @Autowired
+    private WalletRollupService walletRollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupsMatchTheTransactionRows() {
+        Long passenger = createWallet(WalletType.PASSENGER, 1);
+        Long driver = createWallet(WalletType.DRIVER, 4);
+
+        ledgerService.post(LedgerPostingDTO.deposit(passenger, amount("100.00"), reason()));
+        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.PAYMENT, passenger, driver, amount("30.00"), reason()));
+        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.PAYMENT, passenger, driver, amount("12.50"), reason()));
+        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.TRANSFER, passenger, driver, amount("5.00"), reason()));
+        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.REFUND, driver, passenger, amount("10.00"), reason()));
+        ledgerService.post(LedgerPostingDTO.withdrawal(driver, amount("7.50"), reason()));
+
+        assertMatchesRawRows("wallet_daily_rollups", "day", "created_at::date", passenger, driver);
+        assertMatchesRawRows("wallet_monthly_rollups", "month", "date_trunc('month', created_at)::date", passenger, driver);
+
+        LocalDate today = LocalDate.now();
+        WalletEarningsDTO earnings = walletRollupService.findEarnings(driver, WalletType.DRIVER, EarningsGranularity.DAY,
+                today, today.plusDays(1));
+        WalletEarningsPeriodDTO day = earnings.periods().getFirst();
+        assertEquals(1, earnings.periods().size());
+        assertAmount("47.50", day.earned());
+        assertAmount("10.00", day.refunded());
+        assertAmount("30.00", day.net());
+        assertEquals(5, day.transactionCount());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // from,     to,         start,      end
+            "2026-01-15, 2026-02-10, 2026-01-01, 2026-03-01",
+            "2026-01-01, 2026-03-01, 2026-01-01, 2026-03-01",
+            "2026-01-01, 2026-01-31, 2026-01-01, 2026-02-01",
+            "2025-12-31, 2026-01-01, 2025-12-01, 2026-01-01",
+            "2026-02-20, 2026-02-10, 2026-02-01, 2026-03-01",
+            "2026-01-30, 2026-02-28, 2026-01-01, 2026-03-01"
+    })
+    void monthlyBoundsAreWidenedToWholeMonths(LocalDate from, LocalDate to, LocalDate start, LocalDate end) {
+        Long wallet = createWallet(WalletType.DRIVER, 1);
+        for (LocalDate month = LocalDate.of(2025, 11, 1); month.isBefore(LocalDate.of(2026, 5, 1)); month = month.plusMonths(1)) {
+            insertMonthlyRollup(wallet, month);
+        }
+
+        WalletEarningsDTO earnings = walletRollupService.findEarnings(wallet, WalletType.DRIVER, EarningsGranularity.MONTH,
+                from, to);
+
+        assertEquals(start, earnings.from());
+        assertEquals(end, earnings.to());
+        List<LocalDate> months = earnings.periods().stream().map(WalletEarningsPeriodDTO::period).toList();
+        assertEquals(start, months.getFirst());
+        assertEquals(end.minusMonths(1), months.getLast());
+        assertEquals(start.until(end).toTotalMonths(), months.size());
+    }
+
+    @Test
+    void emptyOrTooLongMonthlyRangesAreRejected() {
+        Long wallet = createWallet(WalletType.DRIVER, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> walletRollupService.findEarnings(wallet, WalletType.DRIVER,
+                EarningsGranularity.MONTH, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 1)));
+        assertThrows(IllegalArgumentException.class, () -> walletRollupService.findEarnings(wallet, WalletType.DRIVER,
+                EarningsGranularity.MONTH, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 1, 15)));
+        assertThrows(IllegalArgumentException.class, () -> walletRollupService.findEarnings(wallet, WalletType.DRIVER,
+                EarningsGranularity.MONTH, LocalDate.of(2010, 1, 1), LocalDate.of(2020, 1, 15)));
+    }
+
+    private void assertMatchesRawRows(String table, String periodColumn, String rawPeriod, Long first, Long second) {
+        String rollup = ROLLUP_TOTALS_SQL.formatted(periodColumn, table);
+        String raw = RAW_TOTALS_SQL.formatted(rawPeriod);
+        assertTrue(jdbcTemplate.queryForObject("SELECT count(*) FROM (" + rollup + ") r", Long.class, first, second) > 0);
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ((" + rollup + " EXCEPT " + raw + ") UNION ALL (" + raw + " EXCEPT " + rollup + ")) d",
+                Long.class, first, second, first, second, first, second, first, second), table + " differs from transactions");
+    }
+
+    private void insertMonthlyRollup(Long walletId, LocalDate month) {
+        jdbcTemplate.update("""
+                INSERT INTO wallet_monthly_rollups (wallet_id, month, type, shard_index, credits, debits, transaction_count)
+                VALUES (?, ?, 'PAYMENT', 0, 10.00, 0, 1)
+                """, walletId, Date.valueOf(month));
+    }
+
+    private Long createWallet(WalletType type, int shardCount) {
+        return walletRepository.save(Wallet.builder()
+                .type(type)
+                .balance(BigDecimal.ZERO)
+                .shardCount(shardCount)
+                .build()).getId();
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+
+    private static String reason() {
+        return "rollup-test-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,173 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.TransactionType;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.ledger.LedgerPostingDTO;
+import com.ride.repository.WalletRepository;
+import com.ride.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Correctness of concurrent credits to sharded wallets. Throughput per shard count is
+ * measured by {@code WalletShardCreditBenchmark}.
+ */
+class WalletShardConcurrencyTests extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int CREDITS_PER_THREAD = 200;
+    private static final BigDecimal COMMISSION = new BigDecimal("1.25");
+    private static final BigDecimal EXPECTED = COMMISSION.multiply(BigDecimal.valueOf((long) THREADS * CREDITS_PER_THREAD));
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletShardService walletShardService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8})
+    void concurrentCreditsAreNotLost(int shardCount) throws Exception {
+        Long walletId = createWallet(shardCount);
+
+        creditConcurrently(walletId);
+
+        assertEquals(0, EXPECTED.compareTo(walletRepository.findById(walletId).orElseThrow().getTotalBalance()));
+        assertEquals(0, EXPECTED.compareTo(ledgerBalance(walletId)));
+        assertEquals(THREADS * CREDITS_PER_THREAD, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE wallet_id = ?", Integer.class, walletId));
+    }
+
+    @Test
+    void compactionKeepsLogicalBalance() throws Exception {
+        Long walletId = createWallet(4);
+        creditConcurrently(walletId);
+
+        walletShardService.compactAll();
+
+        Wallet compacted = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(0, EXPECTED.compareTo(compacted.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(compacted.getShardBalance()));
+        assertEquals(0, EXPECTED.compareTo(compacted.getTotalBalance()));
+    }
+
+    @Test
+    void compactionRacingCreditsLosesNothing() throws Exception {
+        Long walletId = createWallet(4);
+        AtomicBoolean crediting = new AtomicBoolean(true);
+
+        try (ExecutorService compactor = Executors.newSingleThreadExecutor()) {
+            Future<?> compaction = compactor.submit(() -> {
+                while (crediting.get()) {
+                    walletShardService.compactAll();
+                }
+            });
+            try {
+                creditConcurrently(walletId);
+            } finally {
+                crediting.set(false);
+            }
+            compaction.get();
+        }
+        walletShardService.compactAll();
+
+        Wallet compacted = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(0, EXPECTED.compareTo(compacted.getBalance()));
+        assertEquals(0, EXPECTED.compareTo(ledgerBalance(walletId)));
+    }
+
+    // Debits lock the wallets row and credits a shard row, and a debit short of the base
+    // balance compacts within the posting, so postings and compactions contend on both
+    @Test
+    void postingsRacingCompactionNeitherDeadlockNorLoseMoney() throws Exception {
+        Long first = createWallet(4);
+        Long second = createWallet(4);
+        BigDecimal seed = new BigDecimal("500.00");
+        ledgerService.post(LedgerPostingDTO.deposit(first, seed, "Seed"));
+        ledgerService.post(LedgerPostingDTO.deposit(second, seed, "Seed"));
+        AtomicBoolean posting = new AtomicBoolean(true);
+
+        try (ExecutorService compactor = Executors.newSingleThreadExecutor();
+             ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            Future<?> compaction = compactor.submit(() -> {
+                while (posting.get()) {
+                    walletShardService.compact(first);
+                    walletShardService.compact(second);
+                }
+            });
+            List<Future<?>> transfers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                transfers.add(executor.submit(() -> {
+                    for (int j = 0; j < CREDITS_PER_THREAD / 2; j++) {
+                        boolean forward = j % 2 == 0;
+                        ledgerService.post(LedgerPostingDTO.transfer(TransactionType.TRANSFER,
+                                forward ? first : second, forward ? second : first, COMMISSION, "Shard race"));
+                    }
+                }));
+            }
+            try {
+                for (Future<?> transfer : transfers) {
+                    transfer.get();
+                }
+            } finally {
+                posting.set(false);
+            }
+            compaction.get();
+        }
+
+        BigDecimal firstBalance = walletRepository.findById(first).orElseThrow().getTotalBalance();
+        BigDecimal secondBalance = walletRepository.findById(second).orElseThrow().getTotalBalance();
+        assertEquals(0, seed.add(seed).compareTo(firstBalance.add(secondBalance)));
+        assertEquals(0, ledgerBalance(first).compareTo(firstBalance));
+        assertEquals(0, ledgerBalance(second).compareTo(secondBalance));
+    }
+
+    private Long createWallet(int shardCount) {
+        return walletRepository.save(Wallet.builder()
+                .type(WalletType.COMPANY)
+                .balance(BigDecimal.ZERO)
+                .shardCount(shardCount)
+                .build()).getId();
+    }
+
+    private BigDecimal ledgerBalance(Long walletId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(amount), 0) FROM transactions WHERE wallet_id = ?", BigDecimal.class, walletId);
+    }
+
+    private void creditConcurrently(Long walletId) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < CREDITS_PER_THREAD; j++) {
+                        ledgerService.post(LedgerPostingDTO.deposit(walletId, COMMISSION, "Ride commission"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
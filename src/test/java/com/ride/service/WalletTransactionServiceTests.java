@@ -0,0 +1,113 @@
+package com.ride.service;
+
+import com.ride.domain.Wallet;
+import com.ride.domain.enums.TransactionType;
+import com.ride.domain.enums.WalletType;
+import com.ride.dto.wallet.WalletTransactionDTO;
+import com.ride.dto.wallet.WalletTransactionPageDTO;
+import com.ride.exception.ServiceOverloadedException;
+import com.ride.repository.WalletRepository;
+import com.ride.service.WalletTransactionService.Cursor;
+import com.ride.service.WalletTransactionService.ExportSlot;
+import com.ride.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WalletTransactionServiceTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private WalletTransactionService walletTransactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cursorSurvivesEncodeAndDecode() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("="), "Cursor should be unpadded base64url");
+        assertEquals(cursor, Cursor.decode(encoded));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("eWVzdGVyZGF5fDQy"));
+    }
+
+    @Test
+    void pagesSplitRowsWithEqualCreatedAtWithoutSkippingOrRepeating() {
+        Long wallet = walletRepository.save(Wallet.builder()
+                .type(WalletType.PASSENGER)
+                .balance(BigDecimal.ZERO)
+                .shardCount(1)
+                .build()).getId();
+        LocalDateTime sameInstant = LocalDateTime.of(2026, 3, 1, 12, 0);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.addFirst(insertTransaction(wallet, sameInstant));
+        }
+        expected.add(insertTransaction(wallet, sameInstant.minusSeconds(1)));
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            WalletTransactionPageDTO page = walletTransactionService.findPage(wallet, cursor, 2);
+            page.items().forEach(transaction -> paged.add(transaction.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void csvFieldsWithSeparatorsQuotesOrNewlinesAreQuoted() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+        assertEquals("7," + createdAt + ",REFUND,12.50,\"Ride 9, \"\"late\"\"\nrefund\",RIDE,9\n",
+                WalletTransactionService.csvLine(new WalletTransactionDTO(7L, TransactionType.REFUND,
+                        new BigDecimal("12.50"), "Ride 9, \"late\"\nrefund", "RIDE", 9L, createdAt)));
+        assertEquals("8," + createdAt + ",DEPOSIT,1.00,Top-up,,\n",
+                WalletTransactionService.csvLine(new WalletTransactionDTO(8L, TransactionType.DEPOSIT,
+                        new BigDecimal("1.00"), "Top-up", null, null, createdAt)));
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreRejectedUntilASlotIsClosed() {
+        WalletTransactionService service = new WalletTransactionService(null, null, null, null, new SimpleMeterRegistry(), 1);
+
+        ExportSlot slot = service.acquireExportSlot();
+        assertThrows(ServiceOverloadedException.class, service::acquireExportSlot);
+
+        slot.close();
+        slot.close();
+        ExportSlot next = service.acquireExportSlot();
+        assertThrows(ServiceOverloadedException.class, service::acquireExportSlot, "A double close must free one slot only");
+        next.close();
+    }
+
+    private long insertTransaction(Long walletId, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO transactions (wallet_id, type, amount, reason, created_at)
+                VALUES (?, 'DEPOSIT', 1.00, 'page-test', ?) RETURNING id
+                """, Long.class, walletId, Timestamp.valueOf(createdAt));
+    }
+}
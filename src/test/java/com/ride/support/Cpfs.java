@@ -0,0 +1,31 @@
+package com.ride.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class Cpfs {
+
+    private Cpfs() {
+    }
+
+    // Random 9 digits plus the two CPF check digits, so @CPF validation passes
+    public static String random() {
+        int[] digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = ThreadLocalRandom.current().nextInt(10);
+        }
+        digits[0] = 1 + ThreadLocalRandom.current().nextInt(9);
+        for (int check = 9; check < 11; check++) {
+            int sum = 0;
+            for (int i = 0; i < check; i++) {
+                sum += digits[i] * (check + 1 - i);
+            }
+            int remainder = sum * 10 % 11;
+            digits[check] = remainder == 10 ? 0 : remainder;
+        }
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+}
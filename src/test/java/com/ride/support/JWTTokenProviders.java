@@ -0,0 +1,25 @@
+package com.ride.support;
+
+import com.ride.config.JWTTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public final class JWTTokenProviders {
+
+    public static final String SECRET = "unit-test-secret-unit-test-secret-unit-test-secret-0123456789";
+
+    private JWTTokenProviders() {
+    }
+
+    // Same wiring Spring does through @Value and @PostConstruct; a negative expiration issues expired tokens
+    public static JWTTokenProvider create(long expirationMillis, int cacheMaxSize, MeterRegistry meterRegistry) {
+        JWTTokenProvider provider = new JWTTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtIssuer", "ride-test");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", expirationMillis);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(provider, "meterRegistry", meterRegistry);
+        provider.init();
+        return provider;
+    }
+}